@@ -1,16 +1,86 @@
 package com.tests.chess.engine;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.bench.ParallelPerft;
+import com.chess.engine.bench.Perft;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.FenUtils;
+import com.chess.engine.board.Mobility;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveDecoder;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.board.Zobrist;
+import com.chess.engine.pgn.PgnGame;
+import com.chess.engine.pgn.PgnReader;
+import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.CancellationToken;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.LazySmp;
 import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.MoveOrderer;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.ParallelAlphaBeta;
+import com.chess.engine.player.ai.PawnHashTable;
+import com.chess.engine.player.ai.PawnStructure;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TaperedBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.chess.engine.server.GameServer;
+import com.chess.engine.server.GameService;
+import com.chess.engine.uci.UciEngine;
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
 import static org.junit.Assert.*;
 
 public class TestBoard {
+    //between them these reach captures, promotions, both castles and en passant within two plies
+    private static final String[] TWO_PLY_POSITIONS = {"kiwipete", "position 4", "position 5"};
+
+    private static void forEachPositionTwoPliesDeep(final Consumer<Board> visitor) {
+        //hands every board two plies into the positions above to the visitor, every move on the way has to play
+        for (final String name : TWO_PLY_POSITIONS) {
+            final Board root = Perft.getReferencePosition(name);
+            for (final Move first : root.currentPlayer().getLegalMoves()) {
+                final MoveTransition transition = root.currentPlayer().makeMove(first);
+                assertTrue(transition.getMoveStatus().isDone());
+                final Board board = transition.getTransitionBoard();
+                for (final Move second : board.currentPlayer().getLegalMoves()) {
+                    final MoveTransition next = board.currentPlayer().makeMove(second);
+                    assertTrue(next.getMoveStatus().isDone());
+                    visitor.accept(next.getTransitionBoard());
+                }
+            }
+        }
+    }
+
     @Test
     public void initialBoard() {
 
@@ -51,10 +121,594 @@ public class TestBoard {
                         BoardUtils.getCoordinateAtPosition("g4")));
         assertTrue(t3.getMoveStatus().isDone());
 
-        final MoveStrategy strategy = new MiniMax(4);
+        final MoveStrategy strategy = new AlphaBeta(4);
         final Move aiMove = strategy.execute(t3.getTransitionBoard());
         final Move bestMove = Move.MoveFactory.createMove(t3.getTransitionBoard(), BoardUtils.getCoordinateAtPosition("d8"),
                 BoardUtils.getCoordinateAtPosition("h4"));
         assertEquals(aiMove, bestMove);
     }
+
+    @Test
+    public void TestZobristTransposition(){
+        //knights out and back again is the starting position, so the incrementally updated key has to come back too
+        Board board = Board.createStandardBoard();
+        final String[][] moves = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        for (final String[] move : moves) {
+            final MoveTransition transition = board.currentPlayer()
+                    .makeMove(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(move[0]),
+                            BoardUtils.getCoordinateAtPosition(move[1])));
+            assertTrue(transition.getMoveStatus().isDone());
+            board = transition.getTransitionBoard();
+            assertEquals(board.getZobristKey(), Zobrist.calculateKey(board));
+        }
+        assertEquals(board.getZobristKey(), Board.createStandardBoard().getZobristKey());
+    }
+
+    @Test
+    public void TestPerftReferencePositions(){
+        for (final String name : new String[]{"start", "kiwipete", "position 3", "position 4", "position 5",
+                                              "position 6"}) {
+            final long[] expected = Perft.getExpectedCounts(name);
+            final Board board = Perft.getReferencePosition(name);
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(name + " depth " + depth, expected[depth - 1], Perft.perft(board, depth));
+            }
+        }
+    }
+
+    @Test
+    public void TestSquareAttacks(){
+        //the pawn on g2 attacks f1 without any move landing there, so white may castle long but not short
+        final Board board = FenUtils.createGameFromFEN("r3k2r/8/8/8/8/8/6p1/R3K2R w KQkq - 0 1");
+        assertTrue(board.isSquareAttacked(61, Alliance.BLACK));
+        assertFalse(board.isSquareAttacked(59, Alliance.BLACK));
+        assertTrue(board.isSquareAttacked(7, Alliance.WHITE)); //the rook on h1 looks up the open h file
+        assertFalse(board.isSquareAttacked(4, Alliance.WHITE));
+        int castles = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.isCastlingMove()) {
+                assertEquals(58, move.getDestinationCoordinate());
+                castles++;
+            }
+        }
+        assertEquals(1, castles);
+    }
+
+    @Test
+    public void TestLegalMovesByConstruction(){
+        //every generated move has to play, and there have to be as many as the SearchBoard finds
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        forEachPositionTwoPliesDeep(board -> {
+            final SearchBoard searchBoard = new SearchBoard(board);
+            final int count = searchBoard.generateMoves(moves, 0);
+            int legal = 0;
+            for (int i = 0; i < count; i++) {
+                if (searchBoard.makeMove(moves[i])) {
+                    searchBoard.unmakeMove();
+                    legal++;
+                }
+            }
+            assertEquals(FenUtils.createFENFromGame(board), legal, board.currentPlayer().getLegalMoves().size());
+        });
+    }
+
+    @Test
+    public void TestIncrementalPieceSquareScore(){
+        //the running score has to match the sum from scratch through captures, promotions, castles and en passant
+        final StandardBoardEvaluator fromScratch = new StandardBoardEvaluator();
+        final StandardBoardEvaluator incremental = new StandardBoardEvaluator(true);
+        forEachPositionTwoPliesDeep(board -> {
+            assertEquals(PieceSquareTables.calculateScore(board), board.getPieceSquareScore());
+            assertEquals(fromScratch.evaluate(board, 0), incremental.evaluate(board, 0));
+        });
+        for (final String name : TWO_PLY_POSITIONS) {
+            final Board root = Perft.getReferencePosition(name);
+            final SearchBoard searchBoard = new SearchBoard(root);
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int count = searchBoard.generateMoves(moves, 0);
+            for (int i = 0; i < count; i++) {
+                if (searchBoard.makeMove(moves[i])) {
+                    assertEquals(PieceSquareTables.calculateScore(searchBoard), searchBoard.getPieceSquareScore());
+                    assertEquals(fromScratch.evaluate(searchBoard, 1), incremental.evaluate(searchBoard, 1));
+                    searchBoard.unmakeMove();
+                }
+            }
+            assertEquals(root.getPieceSquareScore(), searchBoard.getPieceSquareScore());
+        }
+    }
+
+    @Test
+    public void TestTaperedEvaluatorSymmetry(){
+        //colours swapped and the board flipped has to score the exact opposite, on both board representations
+        final TaperedBoardEvaluator evaluator = new TaperedBoardEvaluator();
+        assertEquals(0, evaluator.evaluate(Board.createStandardBoard(), 0));
+        final Board board = FenUtils.createGameFromFEN(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        final Board mirrored = FenUtils.createGameFromFEN(
+                "r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+        assertEquals(-evaluator.evaluate(board, 0), evaluator.evaluate(mirrored, 0));
+        assertEquals(evaluator.evaluate(board, 0), evaluator.evaluate(new SearchBoard(board), 0));
+        //with only kings and pawns left the endgame tables decide, a king in the centre beats one in the corner
+        assertTrue(evaluator.evaluate(FenUtils.createGameFromFEN("7k/8/8/8/3K4/8/8/8 w - - 0 1"), 0) > 0);
+    }
+
+    @Test
+    public void TestPawnHashTable(){
+        //the pawn key follows the pawns through every kind of move and the cached structure matches a fresh one
+        final PawnHashTable pawnTable = new PawnHashTable(1);
+        final TaperedBoardEvaluator cached = new TaperedBoardEvaluator(pawnTable);
+        final TaperedBoardEvaluator uncached = new TaperedBoardEvaluator();
+        forEachPositionTwoPliesDeep(board -> {
+            assertEquals(Zobrist.calculatePawnKey(board), board.getPawnKey());
+            assertEquals(uncached.evaluate(board, 0), cached.evaluate(board, 0));
+        });
+        for (final String name : TWO_PLY_POSITIONS) {
+            final Board root = Perft.getReferencePosition(name);
+            final SearchBoard searchBoard = new SearchBoard(root);
+            assertEquals(root.getPawnKey(), searchBoard.getPawnKey());
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int count = searchBoard.generateMoves(moves, 0);
+            for (int i = 0; i < count; i++) {
+                if (searchBoard.makeMove(moves[i])) {
+                    assertEquals(Zobrist.calculatePawnKey(searchBoard.toBoard()), searchBoard.getPawnKey());
+                    searchBoard.unmakeMove();
+                }
+            }
+            assertEquals(root.getPawnKey(), searchBoard.getPawnKey());
+        }
+        assertTrue(pawnTable.getProbes().getHitRate() > 0.5);
+        //d5 has no black pawn in front on the c, d or e file and a7 no white pawn on the a or b file
+        final PawnStructure structure = new PawnStructure();
+        final Board passers = FenUtils.createGameFromFEN("4k3/p7/8/3P4/8/8/8/4K3 w - - 0 1");
+        structure.calculate(passers.getPieceBitboard(Alliance.WHITE, Piece.PieceType.PAWN),
+                passers.getPieceBitboard(Alliance.BLACK, Piece.PieceType.PAWN));
+        assertEquals(1L << 27, structure.getWhitePassedPawns());
+        assertEquals(1L << 8, structure.getBlackPassedPawns());
+    }
+
+    @Test
+    public void TestEvaluationCache() throws InterruptedException {
+        //threads sharing a cache small enough to keep overwriting itself still only ever get the evaluator's scores
+        final StandardBoardEvaluator evaluator = new StandardBoardEvaluator(true);
+        final EvaluationCache cache = new EvaluationCache(evaluator, 64);
+        assertEquals(64, cache.getCapacity());
+        final List<Board> boards = new ArrayList<>();
+        final Board root = Perft.getReferencePosition("kiwipete");
+        for (final Move move : root.currentPlayer().getLegalMoves()) {
+            boards.add(root.currentPlayer().makeMove(move).getTransitionBoard());
+        }
+        final AtomicInteger wrong = new AtomicInteger();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 20; round++) {
+                    for (final Board board : boards) {
+                        final SearchBoard searchBoard = new SearchBoard(board);
+                        if (cache.evaluate(board, round & 1) != evaluator.evaluate(board, round & 1) ||
+                            cache.evaluate(searchBoard, 0) != evaluator.evaluate(searchBoard, 0)) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrong.get());
+        assertEquals(4L * 20 * boards.size() * 2, cache.getProbes().getHits() + cache.getProbes().getMisses());
+        assertTrue(cache.getProbes().getHits() > 0);
+    }
+
+    @Test
+    public void TestMobilityFromAttackMasks(){
+        //twenty moves each at the start, and both boards count the same in every position two plies deep
+        final Board start = Board.createStandardBoard();
+        assertEquals(20, Mobility.count(start, Alliance.WHITE));
+        assertEquals(20, Mobility.count(start, Alliance.BLACK));
+        forEachPositionTwoPliesDeep(board -> {
+            final SearchBoard searchBoard = new SearchBoard(board);
+            assertEquals(Mobility.count(board, Alliance.WHITE), Mobility.count(searchBoard, SearchBoard.WHITE));
+            assertEquals(Mobility.count(board, Alliance.BLACK), Mobility.count(searchBoard, SearchBoard.BLACK));
+        });
+        //blocked pawns have no moves, and a capture shifted off the a or h file must not wrap onto the other edge
+        final Board pawns = FenUtils.createGameFromFEN("4k3/8/8/7p/p7/P6p/p6P/4K3 w - - 0 1");
+        assertEquals(5, Mobility.count(pawns, Alliance.WHITE)); //only the king's five tiles
+    }
+
+    @Test
+    public void TestFenRoundTrip(){
+        final String[] fens = {
+                FenUtils.STANDARD_FEN,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "r3k3/8/8/8/8/8/8/4K2R b Kq - 12 40"
+        };
+        for (final String fen : fens) {
+            final Board board = FenUtils.createGameFromFEN(fen);
+            assertEquals(fen, FenUtils.createFENFromGame(board));
+            assertEquals(Zobrist.calculateKey(board), board.getZobristKey());
+        }
+        assertEquals(Board.createStandardBoard().getZobristKey(),
+                FenUtils.createGameFromFEN(FenUtils.STANDARD_FEN).getZobristKey());
+    }
+
+    @Test
+    public void TestFenAfterMoves(){
+        //a jump leaves an en passant square, a knight move ticks the fifty move clock, black's move ends move one
+        Board board = Board.createStandardBoard();
+        final String[][] moves = {{"e2", "e4"}, {"g8", "f6"}, {"g1", "f3"}};
+        for (final String[] move : moves) {
+            board = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                    BoardUtils.getCoordinateAtPosition(move[0]), BoardUtils.getCoordinateAtPosition(move[1])))
+                    .getTransitionBoard();
+        }
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2", FenUtils.createFENFromGame(board));
+    }
+
+    @Test
+    public void TestPgnReaderStreamsGames() throws IOException {
+        final String pgn = "[Event \"Casual \\\"game\\\"\"]\n[White \"A\"]\n\n" +
+                "1. e4 {a comment (with brackets)} e5 2.Nf3 (2. f4 exf4 (2...d5)) Nc6 3. Bb5 $1 a6!? ; rest of line\n" +
+                "4...Nf6 1-0\n\n[Event \"Second\"]\n[FEN \"" + FenUtils.STANDARD_FEN + "\"]\n\n1. d4 d5 *\n";
+        //a tiny buffer so tokens and tags are split across refills
+        final PgnReader reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))), 7);
+        final PgnGame first = reader.nextGame();
+        assertEquals("Casual \"game\"", first.getTag("Event"));
+        assertEquals(Arrays.asList("e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Nf6"), first.getMoves());
+        assertEquals("1-0", first.getResult());
+        final PgnGame second = reader.nextGame();
+        assertEquals(FenUtils.STANDARD_FEN, second.getTag("FEN"));
+        assertEquals(Arrays.asList("d4", "d5"), second.getMoves());
+        assertNull(reader.nextGame());
+        assertEquals(2, reader.getGamesRead());
+    }
+
+    @Test
+    public void TestMoveDecoder(){
+        final MoveDecoder decoder = new MoveDecoder();
+        Board board = Board.createStandardBoard();
+        //both knights reach d2, the file in Nbd2 picks the one on b1
+        for (final String san : new String[]{"Nf3", "d5", "d3", "e5", "Nbd2"}) {
+            final Move move = decoder.decode(board, san);
+            assertNotNull(san, move);
+            board = board.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+        assertNull(board.getPiece(BoardUtils.getCoordinateAtPosition("b1")));
+        assertEquals(Piece.PieceType.KNIGHT, board.getPiece(BoardUtils.getCoordinateAtPosition("f3")).getPieceType());
+
+        final Board kiwipete = Perft.getReferencePosition("kiwipete");
+        assertTrue(decoder.decode(kiwipete, "O-O").isCastlingMove());
+        assertTrue(decoder.decode(kiwipete, "O-O-O").isCastlingMove());
+        assertEquals(decoder.decode(kiwipete, "O-O"), decoder.decode(kiwipete, "e1g1"));
+
+        final Board enPassant = FenUtils.createGameFromFEN("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        assertTrue(decoder.decode(enPassant, "exf6") instanceof Move.PawnEnPassantAttackMove);
+
+        final Board promotion = Perft.getReferencePosition("position 5");
+        assertTrue(decoder.decode(promotion, "dxc8=Q+") instanceof Move.PawnPromotion);
+        assertEquals(decoder.decode(promotion, "dxc8=Q+"), decoder.decode(promotion, "d7c8q"));
+        assertEquals(decoder.decode(promotion, "dxc8=N"), decoder.decode(promotion, "d7c8n"));
+        assertEquals(Piece.PieceType.KNIGHT, ((Move.PawnPromotion) decoder.decode(promotion, "d7c8n")).getPromotionType());
+        assertNull(decoder.decode(promotion, "d7c8"));
+        assertNull(decoder.decode(promotion, "Nf3"));
+    }
+
+    @Test
+    public void TestParallelPerftMatchesSerial(){
+        final ParallelPerft perft = new ParallelPerft(2, 16);
+        assertEquals(Perft.getExpectedCounts("kiwipete")[2], perft.perft(Perft.getReferencePosition("kiwipete"), 3));
+        assertEquals(Perft.getExpectedCounts("start")[3], perft.perft(Board.createStandardBoard(), 4));
+        perft.shutdown();
+    }
+
+    @Test
+    public void TestParallelAlphaBetaMatchesSerial(){
+        //splitting the root moves across threads may not change which move wins or its score at the same depth
+        final ParallelAlphaBeta parallel = new ParallelAlphaBeta(3, 3, new TranspositionTable(16),
+                new EvaluationCache(new StandardBoardEvaluator(true)));
+        for (final String name : new String[]{"start", "kiwipete", "position 3", "position 6"}) {
+            final Board board = Perft.getReferencePosition(name);
+            parallel.getTranspositionTable().clear(); //the serial search starts from an empty table as well
+            final AlphaBeta serial = new AlphaBeta(3, new TranspositionTable(16));
+            assertEquals(name, serial.execute(board, new PositionHistory(board)),
+                         parallel.execute(board, new PositionHistory(board)));
+            assertEquals(name, serial.getLastScore(), parallel.getLastScore());
+        }
+        parallel.shutdown();
+    }
+
+    @Test
+    public void TestLazySmpLifecycle() throws InterruptedException {
+        //three threads share the table and the evaluation cache, every way of stopping still ends in a legal move
+        final Board board = Perft.getReferencePosition("kiwipete");
+        final EvaluationCache evaluationCache = new EvaluationCache(new StandardBoardEvaluator(true));
+        final LazySmp lazySmp = new LazySmp(3, 3, new TranspositionTable(16), evaluationCache);
+        final Move fixed = lazySmp.execute(board, new PositionHistory(board));
+        assertTrue(board.currentPlayer().getLegalMoves().contains(fixed));
+        assertEquals(3, lazySmp.getCompletedDepth());
+        assertTrue(lazySmp.getNodesPerThread().get("helper-2") > 0);
+        assertTrue(evaluationCache.getProbes().getHits() > 0);
+
+        final long start = System.nanoTime();
+        final Move timed = lazySmp.execute(board, new PositionHistory(board),
+                new SearchLimits.Builder().setMaxDepth(30).setMoveTime(200).build(), null);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(timed));
+
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        final Move cancelled = lazySmp.execute(board, new PositionHistory(board),
+                SearchLimits.depth(30).withCancellation(token), null);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(cancelled));
+
+        final List<Thread> helpers = new ArrayList<>();
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("lazy-smp-helper")) {
+                helpers.add(thread);
+            }
+        }
+        assertEquals(2, helpers.size());
+        lazySmp.shutdown();
+        for (final Thread helper : helpers) {
+            helper.join(2000);
+            assertFalse(helper.isAlive());
+        }
+    }
+
+    @Test
+    public void TestPositionHistoryRepetitions(){
+        //the knights go out and back twice, bringing them home again repeats the start position a third time
+        final MoveDecoder decoder = new MoveDecoder();
+        Board board = Board.createStandardBoard();
+        final PositionHistory history = new PositionHistory(board);
+        for (final String uci : new String[]{"g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1"}) {
+            board = board.currentPlayer().makeMove(decoder.decodeUci(board, uci)).getTransitionBoard();
+            history.push(board);
+        }
+        assertFalse(history.isThreefold());
+        final Move home = decoder.decodeUci(board, "f6g8");
+        assertTrue(history.wouldBeThreefold(board.currentPlayer().makeMove(home).getTransitionBoard().getZobristKey()));
+
+        final int searchMove = SearchMove.create(home.getCurrentCoordinate(), home.getDestinationCoordinate(),
+                                                 SearchMove.QUIET);
+        final SearchBoard withHistory = new SearchBoard(board, history);
+        assertTrue(withHistory.makeMove(searchMove));
+        assertTrue(withHistory.isRepetition());
+        final SearchBoard withoutHistory = new SearchBoard(board);
+        assertTrue(withoutHistory.makeMove(searchMove));
+        assertFalse(withoutHistory.isRepetition());
+
+        //no GUI behind the search, the strategy only sees the history it is given
+        assertNotNull(new MiniMax(1).execute(board, history));
+    }
+
+    @Test
+    public void TestUciEngine() throws IOException {
+        final String commands = "uci\nisready\n" +
+                                "position fen 6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1\ngo depth 3\n" +
+                                "position startpos moves e2e4 e7e5\ngo movetime 200\nquit\n";
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new UciEngine(new BufferedReader(new StringReader(commands)), new PrintStream(bytes, true)).run();
+        final String output = bytes.toString();
+        assertTrue(output.contains("uciok"));
+        assertTrue(output.contains("readyok"));
+        assertTrue(output.contains("info depth 3 score mate 1 "));
+        assertTrue(output.contains("bestmove d1d8"));
+        assertTrue(output.matches("(?s).*pv d1d8.*bestmove d1d8.*bestmove [a-h][1-8][a-h][1-8].*"));
+    }
+
+    @Test
+    public void TestUciPromotions() throws IOException {
+        /*the knight promotion mates, the queen promotion on the same tiles does not, so each reply shows which piece
+        the engine put on f8. A promotion without its piece is no move*/
+        final String fen = "position fen 6br/5Ppk/6pp/8/8/8/8/K7 w - - 0 1";
+        final String commands = fen + "\ngo depth 3\n" +
+                                fen + " moves f7f8n\ngo depth 1\n" +
+                                fen + " moves f7f8q\ngo depth 1\n" +
+                                fen + " moves f7f8\nquit\n";
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new UciEngine(new BufferedReader(new StringReader(commands)), new PrintStream(bytes, true)).run();
+        final String output = bytes.toString();
+        assertTrue(output.matches("(?s).*pv f7f8n.*bestmove f7f8n\\R.*bestmove 0000\\R.*bestmove [a-h][1-8][a-h][1-8].*"));
+        assertTrue(output.contains("info string illegal move f7f8"));
+    }
+
+    @Test
+    public void TestGameServerProtocol() throws IOException {
+        try (final GameService service = new GameService(() -> new AlphaBeta(2), 1);
+             final GameServer server = new GameServer(service, 0)) {
+            server.start();
+            try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                 final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                 final Writer out = new OutputStreamWriter(socket.getOutputStream())) {
+                out.write("{\"cmd\":\"new\"}\n{\"cmd\":\"move\",\"game\":1,\"move\":\"e4\"}\n" +
+                          "{\"cmd\":\"go\",\"game\":1}\n{\"cmd\":\"move\",\"game\":1,\"move\":\"e2e4\"}\n" +
+                          "{\"cmd\":\"state\",\"game\":1}\n{\"cmd\":\"close\",\"game\":1}\n{\"cmd\":\"stats\"}\n");
+                out.flush();
+                assertTrue(in.readLine().startsWith("{\"ok\":true,\"game\":1,"));
+                assertTrue(in.readLine().contains("\"fen\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\""));
+                assertTrue(in.readLine().matches("\\{\"ok\":true,\"game\":1,\"move\":\"[a-h][1-8][a-h][1-8]\".*"));
+                assertTrue(in.readLine().startsWith("{\"ok\":false"));
+                assertTrue(in.readLine().contains("\"moves\":\"e2e4 "));
+                assertEquals("{\"ok\":true}", in.readLine());
+                assertTrue(in.readLine().contains("\"open\":0,\"started\":1,\"closed\":1,\"moves\":1,"));
+            }
+        }
+    }
+
+    @Test
+    public void TestSearchStopsAtDeadlineAndCancellation() {
+        final Board board = Board.createStandardBoard();
+        final AlphaBeta alphaBeta = new AlphaBeta(4);
+        //far too deep to finish, the hard limit has to cut it off and the best move found so far comes back
+        final long start = System.nanoTime();
+        final Move timed = alphaBeta.execute(board, new PositionHistory(board),
+                new SearchLimits.Builder().setMaxDepth(30).setMoveTime(200).build(), null);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(timed));
+        //called off before it starts, the search still answers with a legal move
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        final Move cancelled = alphaBeta.execute(board, new PositionHistory(board),
+                SearchLimits.depth(30).withCancellation(token), null);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(cancelled));
+    }
+
+    @Test
+    public void TestTranspositionTable() throws ReflectiveOperationException {
+        final TranspositionTable table = new TranspositionTable(1);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(42L));
+        final int move = SearchMove.create(12, 28, SearchMove.DOUBLE_PAWN_PUSH);
+        table.store(42L, 7, TranspositionTable.LOWER_BOUND, -1234, move);
+        final long entry = table.probe(42L);
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        assertEquals(-1234, TranspositionTable.getScore(entry));
+        assertEquals(move, TranspositionTable.getMove(entry));
+        table.store(43L, 1000, TranspositionTable.EXACT, 5, SearchMove.NONE);
+        assertEquals(255, TranspositionTable.getDepth(table.probe(43L))); //the depth is clamped to its eight bits
+
+        //keys that differ only above the index bits share a bucket: the deep slot keeps the deepest, the other is replaced
+        final long deep = 1000L;
+        final long shallow = deep | (1L << 40);
+        final long newer = deep | (2L << 40);
+        final long deeper = deep | (3L << 40);
+        table.store(deep, 5, TranspositionTable.EXACT, 1, SearchMove.NONE);
+        table.store(shallow, 2, TranspositionTable.EXACT, 2, SearchMove.NONE);
+        assertNotEquals(TranspositionTable.NO_ENTRY, table.probe(deep));
+        assertNotEquals(TranspositionTable.NO_ENTRY, table.probe(shallow));
+        table.store(newer, 1, TranspositionTable.EXACT, 3, SearchMove.NONE);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(shallow));
+        assertEquals(3, TranspositionTable.getScore(table.probe(newer)));
+        assertEquals(1, TranspositionTable.getScore(table.probe(deep)));
+        table.store(deeper, 6, TranspositionTable.EXACT, 4, SearchMove.NONE);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(deep));
+        assertEquals(4, TranspositionTable.getScore(table.probe(deeper)));
+        assertEquals(3, TranspositionTable.getScore(table.probe(newer)));
+
+        //a key word that no longer matches its data, as a torn write would leave it, reads as a miss
+        final Field keys = TranspositionTable.class.getDeclaredField("keys");
+        keys.setAccessible(true);
+        final long[] keyWords = (long[]) keys.get(table);
+        for (int i = 0; i < keyWords.length; i++) {
+            keyWords[i] ^= 1L << 50;
+        }
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(42L));
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(deeper));
+
+        final int capacity = table.getCapacity();
+        table.resize(2);
+        assertEquals(2, table.getSizeInMegabytes());
+        assertEquals(2 * capacity, table.getCapacity());
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(newer));
+        table.store(newer, 3, TranspositionTable.UPPER_BOUND, 9, SearchMove.NONE);
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.getBound(table.probe(newer)));
+    }
+
+    @Test
+    public void TestMoveOrdering() {
+        //both pawns and the queen can take the rook on c5, the pawn on d4 can also take the knight on e5
+        final SearchBoard board = new SearchBoard(FenUtils.createGameFromFEN("4k3/8/8/2r1n3/1P1P4/8/8/2Q1K3 w - - 0 1"));
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int[] scores = new int[SearchBoard.MAX_MOVES];
+        final int count = board.generateMoves(moves, 0);
+        final MoveOrderer orderer = new MoveOrderer();
+        final int killer = findSearchMove(moves, count, "e1f2");
+        final int quiet = findSearchMove(moves, count, "e1f1");
+        orderer.recordCutoff(board, killer, 2, 0, 1); //a killer at ply 0
+        orderer.recordCutoff(board, quiet, 3, 5, 3); //only history at ply 0, it was a killer at ply 5
+        assertEquals(2, orderer.getCutoffs());
+        assertEquals(1, orderer.getFirstMoveCutoffs());
+        assertEquals(0.5, orderer.getFirstMoveCutoffRate(), 1e-9);
+
+        orderer.scoreMoves(board, moves, scores, count, findSearchMove(moves, count, "e1d2"), 0);
+        final List<String> order = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            order.add(SearchMove.toString(MoveOrderer.nextMove(moves, scores, i, count)));
+        }
+        assertEquals("e1d2", order.get(0)); //the hash move
+        assertEquals(new HashSet<>(Arrays.asList("b4c5", "d4c5")), new HashSet<>(order.subList(1, 3)));
+        assertEquals(Arrays.asList("c1c5", "d4e5", "e1f2", "e1f1"), order.subList(3, 7));
+    }
+
+    private static int findSearchMove(final int[] moves, final int count, final String uci) {
+        for (int i = 0; i < count; i++) {
+            if (SearchMove.toString(moves[i]).equals(uci)) {
+                return moves[i];
+            }
+        }
+        throw new AssertionError(uci + " not generated");
+    }
+
+    @Test
+    public void TestQuiescenceSeesTheRecapture() {
+        //d5 is the pawn a static look likes best to take, but c6 takes the queen back
+        final Board board = FenUtils.createGameFromFEN("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        final StandardBoardEvaluator evaluator = new StandardBoardEvaluator();
+        Move greedy = null;
+        int greedyScore = Integer.MIN_VALUE;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final int score = evaluator.evaluate(board.currentPlayer().makeMove(move).getTransitionBoard(), 0);
+            if (score > greedyScore) {
+                greedyScore = score;
+                greedy = move;
+            }
+        }
+        assertEquals("d1d5", MoveDecoder.toUci(greedy));
+        final AlphaBeta alphaBeta = new AlphaBeta(1);
+        assertNotEquals("d1d5", MoveDecoder.toUci(alphaBeta.execute(board, new PositionHistory(board))));
+        assertTrue(alphaBeta.getSelectiveDepth() > 1);
+        //however many captures a position offers, quiescence stops MAX_QUIESCENCE_DEPTH plies past the horizon
+        final Board kiwipete = Perft.getReferencePosition("kiwipete");
+        final AlphaBeta deeper = new AlphaBeta(3);
+        deeper.execute(kiwipete, new PositionHistory(kiwipete));
+        assertTrue(deeper.getSelectiveDepth() > 3);
+        assertTrue(deeper.getSelectiveDepth() <= 3 + AlphaBeta.MAX_QUIESCENCE_DEPTH);
+    }
+
+    @Test
+    public void TestPromotionsBuiltTwiceAreEqual() {
+        //a promotion made outside the board's own list is still the same move, as long as the piece chosen matches
+        final Board board = FenUtils.createGameFromFEN("6br/5Ppk/6pp/8/8/8/8/K7 w - - 0 1");
+        final Piece pawn = board.getPiece(13);
+        final Move push = new Move.PawnPromotion(new Move.PawnMove(board, pawn, 5), Piece.PieceType.KNIGHT);
+        final Move samePush = new Move.PawnPromotion(new Move.PawnMove(board, pawn, 5), Piece.PieceType.KNIGHT);
+        assertEquals(push, samePush);
+        assertEquals(push.hashCode(), samePush.hashCode());
+        assertTrue(board.currentPlayer().isLegalMove(samePush));
+        assertNotEquals(push, new Move.PawnPromotion(new Move.PawnMove(board, pawn, 5), Piece.PieceType.QUEEN));
+        final Move capture = new Move.PawnPromotion(new Move.PawnAttackingMove(board, pawn, 6, board.getPiece(6)),
+                Piece.PieceType.ROOK);
+        assertEquals(capture, new Move.PawnPromotion(new Move.PawnAttackingMove(board, pawn, 6, board.getPiece(6)),
+                Piece.PieceType.ROOK));
+        assertTrue(board.currentPlayer().isLegalMove(capture));
+        assertNotEquals(push, capture);
+    }
+
+    @Test
+    public void TestSearchPlaysUnderpromotion() {
+        //only the knight gives mate on f8, the move the search found has to be the move that gets played
+        final Board board = FenUtils.createGameFromFEN("6br/5Ppk/6pp/8/8/8/8/K7 w - - 0 1");
+        final Move move = new AlphaBeta(3).execute(board, new PositionHistory(board));
+        assertEquals("f7f8n", MoveDecoder.toUci(move));
+        assertTrue(board.currentPlayer().makeMove(move).getTransitionBoard().currentPlayer().isInCheckMate());
+    }
+
+    @Test
+    public void TestRandomMarginIgnoresAbortedIteration() {
+        /*the time limit always stops a search in the middle of an iteration, the margin must only choose among the
+        scores of the last iteration that finished, so the free rook is taken every time*/
+        final Board board = FenUtils.createGameFromFEN("4k3/8/8/3r4/8/8/3Q4/4K3 w - - 0 1");
+        final AlphaBeta alphaBeta = new AlphaBeta(30, new TranspositionTable(16), 50);
+        for (int i = 0; i < 5; i++) {
+            final Move move = alphaBeta.execute(board, new PositionHistory(board),
+                    new SearchLimits.Builder().setMaxDepth(30).setMoveTime(50).build(), null);
+            assertEquals("d2d5", MoveDecoder.toUci(move));
+            assertTrue(alphaBeta.getCompletedDepth() < 30);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CheckDetection {/*compares the two ways of asking whether a king is attacked on the positions two
+    plies below the perft reference positions: going through every move the opponent has and looking for one that lands
+    on the king's tile, as Player used to, against Board.isSquareAttacked which only looks along the lines an attacker
+    could stand on. Every Board pays for three such questions, whether each player is in check and whether the move
+    that led to it left the mover's king attacked, so the saving per node is three times the difference per check, e.g.
+        java com.chess.engine.bench.CheckDetection 200*/
+
+    private static final String[] POSITIONS = {"start", "kiwipete", "position 3", "position 4", "position 5",
+                                               "position 6"};
+    private static final int CHECKS_PER_NODE = 3;
+
+    private CheckDetection() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static void main(final String[] args) {
+        final int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final List<Board> boards = new ArrayList<>();
+        for (final String name : POSITIONS) {
+            collect(Perft.getReferencePosition(name), 2, boards);
+        }
+        //both ways have to agree before their speed means anything
+        int checks = 0;
+        for (final Board board : boards) {
+            final boolean scanned = scanForAttack(board, board.currentPlayer());
+            if (scanned != board.currentPlayer().isInCheck()) {
+                throw new IllegalStateException("the two checks disagree on\n" + board);
+            }
+            checks += scanned ? 1 : 0;
+        }
+        System.out.printf("%d positions, %d of them in check%n", boards.size(), checks);
+
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            timeScan(boards, rounds / 4 + 1);
+            timeAttackQuery(boards, rounds / 4 + 1);
+        }
+        final long queries = (long) boards.size() * rounds;
+        final double scanNanos = (double) timeScan(boards, rounds) / queries;
+        final double queryNanos = (double) timeAttackQuery(boards, rounds) / queries;
+        System.out.printf("move list scan      %8.1f ns per check%n", scanNanos);
+        System.out.printf("isSquareAttacked    %8.1f ns per check  (%.1fx)%n", queryNanos, scanNanos / queryNanos);
+        System.out.printf("saving per node     %8.1f ns over %d checks%n",
+                (scanNanos - queryNanos) * CHECKS_PER_NODE, CHECKS_PER_NODE);
+    }
+
+    static void collect(final Board board, final int depth, final List<Board> boards) {
+        boards.add(board);
+        if (depth == 0) {
+            return;
+        }
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                collect(transition.getTransitionBoard(), depth - 1, boards);
+            }
+        }
+    }
+
+    private static long timeScan(final List<Board> boards, final int rounds) {
+        final long start = System.nanoTime();
+        int found = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (final Board board : boards) {
+                found += scanForAttack(board, board.currentPlayer()) ? 1 : 0;
+            }
+        }
+        return System.nanoTime() - start + (found == -1 ? 1 : 0); //found keeps the loop from being optimised away
+    }
+
+    private static long timeAttackQuery(final List<Board> boards, final int rounds) {
+        final long start = System.nanoTime();
+        int found = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (final Board board : boards) {
+                final Player player = board.currentPlayer();
+                found += board.isSquareAttacked(player.getPlayerKing().getPiecePosition(),
+                        opponentOf(player.getAlliance())) ? 1 : 0;
+            }
+        }
+        return System.nanoTime() - start + (found == -1 ? 1 : 0);
+    }
+
+    private static boolean scanForAttack(final Board board, final Player player) {
+        //the old way: any opponent move that ends on the king's tile is an attack
+        final int kingTile = player.getPlayerKing().getPiecePosition();
+        for (final Move move : player.getOpponent().getLegalMoves()) {
+            if (move.getDestinationCoordinate() == kingTile) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Alliance opponentOf(final Alliance alliance) {
+        return alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+    }
+}
@@ -0,0 +1,82 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.PawnHashTable;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TaperedBoardEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EvaluatorCost {/*the cost of one evaluate call for each evaluator, on the search board the search
+    leaves call it with and on the immutable board the GUI uses, over the positions two plies below the perft reference
+    positions, e.g.
+        java com.chess.engine.bench.EvaluatorCost 200
+    The cached evaluator sees the same positions every round, so its row is close to the cost of a hit*/
+
+    private static final String[] POSITIONS = {"start", "kiwipete", "position 3", "position 4", "position 5",
+                                               "position 6"};
+
+    private EvaluatorCost() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static void main(final String[] args) {
+        final int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final List<Board> boards = new ArrayList<>();
+        for (final String name : POSITIONS) {
+            CheckDetection.collect(Perft.getReferencePosition(name), 2, boards);
+        }
+        final List<SearchBoard> searchBoards = new ArrayList<>(boards.size());
+        for (final Board board : boards) {
+            searchBoards.add(new SearchBoard(board));
+        }
+        System.out.printf("%d positions, %d rounds%n", boards.size(), rounds);
+
+        final PawnHashTable pawnTable = new PawnHashTable();
+        final EvaluationCache evaluationCache = new EvaluationCache(new StandardBoardEvaluator(true));
+        final String[] names = {"standard", "standard incremental", "tapered", "tapered + pawn hash",
+                                "standard incr. + cache"};
+        final BoardEvaluator[] evaluators = {new StandardBoardEvaluator(), new StandardBoardEvaluator(true),
+                                             new TaperedBoardEvaluator(), new TaperedBoardEvaluator(pawnTable),
+                                             evaluationCache};
+        for (int i = 0; i < evaluators.length; i++) {
+            timeSearchBoards(evaluators[i], searchBoards, rounds / 4 + 1); //warm up
+            timeBoards(evaluators[i], boards, rounds / 4 + 1);
+            final double searchNanos = (double) timeSearchBoards(evaluators[i], searchBoards, rounds) /
+                                       ((long) searchBoards.size() * rounds);
+            final double boardNanos = (double) timeBoards(evaluators[i], boards, rounds) /
+                                      ((long) boards.size() * rounds);
+            System.out.printf("%-22s search board %8.1f ns %12.0f calls/s   board %8.1f ns%n", names[i], searchNanos,
+                    1e9 / searchNanos, boardNanos);
+        }
+        System.out.println(pawnTable);
+        System.out.println(evaluationCache);
+    }
+
+    private static long timeSearchBoards(final BoardEvaluator evaluator, final List<SearchBoard> boards,
+                                         final int rounds) {
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (final SearchBoard board : boards) {
+                sum += evaluator.evaluate(board, 1);
+            }
+        }
+        return System.nanoTime() - start + (sum == Long.MIN_VALUE ? 1 : 0); //sum keeps the calls from being optimised away
+    }
+
+    private static long timeBoards(final BoardEvaluator evaluator, final List<Board> boards, final int rounds) {
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (final Board board : boards) {
+                sum += evaluator.evaluate(board, 1);
+            }
+        }
+        return System.nanoTime() - start + (sum == Long.MIN_VALUE ? 1 : 0);
+    }
+}
@@ -0,0 +1,160 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class ParallelPerft {/*perft for the deep counts: the tree is cut two plies below the root and the subtrees
+    are shared out over a fixed thread pool, all threads memoize (position, depth) -> count in one PerftTable. The counts
+    are exactly those of Perft, only the work to get them is shared and reused.
+        java com.chess.engine.bench.ParallelPerft 6 8 512 [fen]     depth 6 on 8 threads with a 512 MB table*/
+
+    private static final int SPLIT_PLY = 2; //400 subtrees from the start position, enough to keep 32 threads busy
+
+    private final int threadCount;
+    private final PerftTable table;
+    private final ExecutorService pool;
+    private final Map<String, long[]> nodesPerThread = new ConcurrentHashMap<>();
+
+    public ParallelPerft(final int threadCount, final int tableSizeInMegabytes) {
+        this.threadCount = Math.max(1, threadCount);
+        this.table = tableSizeInMegabytes > 0 ? new PerftTable(tableSizeInMegabytes) : null;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "perft-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final int tableSize = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        final Board board = args.length > 3 ? FenUtils.createGameFromFEN(Perft.joinFrom(args, 3)) : Board.createStandardBoard();
+
+        final ParallelPerft perft = new ParallelPerft(threads, tableSize);
+        final long start = System.nanoTime();
+        final long nodes = perft.perft(board, depth);
+        final long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        perft.shutdown();
+
+        System.out.printf("depth %d  %d nodes  %d ms  %d leaves/s on %d threads%n",
+                depth, nodes, millis, nodes * 1000 / millis, threads);
+        for (final Map.Entry<String, Long> entry : perft.getNodesPerThread().entrySet()) {
+            System.out.printf("  %-10s %12d positions visited %10d per second%n",
+                    entry.getKey(), entry.getValue(), entry.getValue() * 1000 / millis);
+        }
+        if (perft.table != null) {
+            System.out.println(perft.table);
+        }
+        if (args.length <= 3) {
+            final long[] expected = Perft.getExpectedCounts("start");
+            if (depth <= expected.length) {
+                System.out.println(nodes == expected[depth - 1] ? "ok" : "FAILED, expected " + expected[depth - 1]);
+            }
+        }
+    }
+
+    public long perft(final Board board, final int depth) {
+        this.nodesPerThread.values().forEach(count -> count[0] = 0);
+        if (depth <= SPLIT_PLY) {
+            return Perft.perft(board, depth);
+        }
+        final List<Board> subtrees = new ArrayList<>();
+        collectSubtrees(board, SPLIT_PLY, subtrees);
+
+        final List<Future<Long>> counts = new ArrayList<>(subtrees.size());
+        for (final Board subtree : subtrees) {
+            counts.add(this.pool.submit(() -> count(subtree, depth - SPLIT_PLY, threadNodes())));
+        }
+        long nodes = 0;
+        try {
+            for (final Future<Long> count : counts) {
+                nodes += count.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return nodes;
+    }
+
+    private static void collectSubtrees(final Board board, final int plies, final List<Board> subtrees) {
+        if (plies == 0) {
+            subtrees.add(board);
+            return;
+        }
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                collectSubtrees(transition.getTransitionBoard(), plies - 1, subtrees);
+            }
+        }
+    }
+
+    private long[] threadNodes() {
+        //one counter per pool thread, only ever written by that thread, read once the perft is over
+        return this.nodesPerThread.computeIfAbsent(Thread.currentThread().getName(), name -> new long[1]);
+    }
+
+    private long count(final Board board, final int depth, final long[] visited) {
+        if (depth == 0) {
+            return 1;
+        }
+        final long key = board.getZobristKey();
+        if (this.table != null) {
+            final long cached = this.table.probe(key, depth);
+            if (cached != PerftTable.NO_ENTRY) {
+                return cached;
+            }
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                visited[0]++;
+                nodes += depth == 1 ? 1 : count(transition.getTransitionBoard(), depth - 1, visited);
+            }
+        }
+        if (this.table != null) {
+            this.table.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    public Map<String, Long> getNodesPerThread() {
+        final Map<String, Long> nodes = new TreeMap<>();
+        for (final Map.Entry<String, long[]> entry : this.nodesPerThread.entrySet()) {
+            nodes.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return Collections.unmodifiableMap(nodes);
+    }
+
+    public PerftTable getTable() {
+        return this.table;
+    }
+
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    public void shutdown() {
+        this.pool.shutdownNow();
+    }
+}
@@ -0,0 +1,137 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.FenUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class Perft {/*counts the leaf nodes of the full legal move tree to a given depth, through the same
+    Piece.calculateLegalMoves and Player.makeMove the game uses. The counts of the reference positions below are known,
+    so any difference is a move generator bug and the divide output tells which root move it hides under.
+        java com.chess.engine.bench.Perft suite 4            runs every reference position up to depth 4
+        java com.chess.engine.bench.Perft divide 3 [fen]     node count per root move, start position without a fen*/
+
+    private static final Object[][] REFERENCE_POSITIONS = {
+            {"start", FenUtils.STANDARD_FEN,
+                    new long[]{20, 400, 8_902, 197_281, 4_865_609, 119_060_324, 3_195_901_860L}},
+            {"kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    new long[]{48, 2_039, 97_862, 4_085_603}},
+            {"position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[]{14, 191, 2_812, 43_238, 674_624}},
+            {"position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    new long[]{6, 264, 9_467, 422_333}},
+            {"position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    new long[]{44, 1_486, 62_379, 2_103_487}},
+            {"position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    new long[]{46, 2_079, 89_890, 3_894_594}}
+    };
+
+    private Perft() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static void main(final String[] args) {
+        final String mode = args.length > 0 ? args[0] : "suite";
+        if (mode.equals("divide")) {
+            final int depth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+            final Board board = args.length > 2 ? FenUtils.createGameFromFEN(joinFrom(args, 2)) : Board.createStandardBoard();
+            final long start = System.nanoTime();
+            long total = 0;
+            for (final Map.Entry<String, Long> entry : divide(board, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            final long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            System.out.printf("%nnodes %d  %d ms  %d nps%n", total, millis, total * 1000 / millis);
+        } else {
+            final int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+            System.exit(runSuite(maxDepth) ? 0 : 1);
+        }
+    }
+
+    public static long perft(final Board board, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return board.currentPlayer().getLegalMoves().size(); //the list only holds legal moves, no need to play them
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodes += perft(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    public static Map<String, Long> divide(final Board board, final int depth) {
+        //the node count below every legal root move, compared against a trusted engine this finds the faulty line
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                counts.merge(moveText(move), perft(transition.getTransitionBoard(), depth - 1), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    public static boolean runSuite(final int maxDepth) {
+        boolean allPassed = true;
+        for (final Object[] position : REFERENCE_POSITIONS) {
+            final String name = (String) position[0];
+            final Board board = FenUtils.createGameFromFEN((String) position[1]);
+            final long[] expected = (long[]) position[2];
+            for (int depth = 1; depth <= Math.min(maxDepth, expected.length); depth++) {
+                final long start = System.nanoTime();
+                final long nodes = perft(board, depth);
+                final long micros = Math.max(1, (System.nanoTime() - start) / 1_000);
+                final boolean passed = nodes == expected[depth - 1];
+                allPassed &= passed;
+                System.out.printf("%-10s depth %d %12d nodes %10d nps  %s%n", name, depth, nodes,
+                        nodes * 1_000_000 / micros, passed ? "ok" : "FAILED, expected " + expected[depth - 1]);
+            }
+        }
+        return allPassed;
+    }
+
+    public static long[] getExpectedCounts(final String name) {
+        for (final Object[] position : REFERENCE_POSITIONS) {
+            if (position[0].equals(name)) {
+                return ((long[]) position[2]).clone();
+            }
+        }
+        throw new IllegalArgumentException("No reference position called " + name);
+    }
+
+    public static Board getReferencePosition(final String name) {
+        for (final Object[] position : REFERENCE_POSITIONS) {
+            if (position[0].equals(name)) {
+                return FenUtils.createGameFromFEN((String) position[1]);
+            }
+        }
+        throw new IllegalArgumentException("No reference position called " + name);
+    }
+
+    private static String moveText(final Move move) {
+        //long algebraic notation, e2e4, castles as the king's two tiles, the same text most engines print for divide
+        return BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate()) +
+               BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate()) +
+               (move instanceof Move.PawnPromotion ?
+                       ((Move.PawnPromotion) move).getPromotionType().toString().toLowerCase() : "");
+    }
+
+    static String joinFrom(final String[] args, final int start) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = start; i < args.length; i++) {
+            builder.append(i > start ? " " : "").append(args[i]);
+        }
+        return builder.toString();
+    }
+}
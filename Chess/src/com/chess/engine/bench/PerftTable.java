@@ -0,0 +1,65 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.player.ai.ProbeCounter;
+
+public final class PerftTable {/*remembers the node count below a position for a given depth, keyed by the board's Zobrist
+    key, so a subtree reached again through another move order is counted once. Deep perft is full of such
+    transpositions.
+
+    Shared by the perft threads through the TranspositionTable's check word, and a store always replaces the slot, perft
+    never needs an entry twice as much as another*/
+
+    public static final long NO_ENTRY = -1L;
+
+    private static final int BYTES_PER_SLOT = 16; //one long for the key and one for the packed data
+    private static final int DEPTH_BITS = 8; //layout of the packed data long: bits 0-7 depth, bits 8-63 node count
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    private final ProbeCounter probes = new ProbeCounter();
+
+    public PerftTable(final int sizeInMegabytes) {
+        if (sizeInMegabytes < 1) {
+            throw new IllegalArgumentException("Perft table needs at least 1 MB, got " + sizeInMegabytes);
+        }
+        final long budgetSlots = ((long) sizeInMegabytes << 20) / BYTES_PER_SLOT;
+        final int slots = Integer.highestOneBit((int) Math.min(budgetSlots, 1 << 28));
+        this.keys = new long[slots];
+        this.entries = new long[slots];
+        this.mask = slots - 1;
+    }
+
+    public long probe(final long key, final int depth) {
+        final int slot = (int) key & this.mask;
+        final long entry = this.entries[slot]; //read once, another thread may overwrite the slot while we look
+        if (entry != 0 && (this.keys[slot] ^ entry) == key && (entry & DEPTH_MASK) == depth) {
+            this.probes.hit();
+            return entry >>> DEPTH_BITS;
+        }
+        this.probes.miss();
+        return NO_ENTRY;
+    }
+
+    public void store(final long key, final int depth, final long nodes) {
+        final int slot = (int) key & this.mask;
+        final long entry = (nodes << DEPTH_BITS) | depth;
+        this.entries[slot] = entry;
+        this.keys[slot] = key ^ entry;
+    }
+
+    public ProbeCounter getProbes() {
+        return this.probes;
+    }
+
+    public int getCapacity() {
+        return this.entries.length;
+    }
+
+    @Override
+    public String toString() {
+        return "Perft table " + getCapacity() + " entries: " + this.probes;
+    }
+}
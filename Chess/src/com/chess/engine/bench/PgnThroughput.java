@@ -0,0 +1,47 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.pgn.PgnGame;
+import com.chess.engine.pgn.PgnReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public final class PgnThroughput {/*streams a PGN database through PgnReader and reports games/sec, MB/sec and the
+    heap in use along the way, which has to stay flat however big the file is, e.g.
+        java com.chess.engine.bench.PgnThroughput lichess_2024-01.pgn*/
+
+    private static final long REPORT_EVERY = 100_000; //games between two progress lines
+
+    private PgnThroughput() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: PgnThroughput <file.pgn>");
+            System.exit(2);
+        }
+        final Path path = Paths.get(args[0]);
+        final long start = System.nanoTime();
+        long plies = 0;
+        try (final PgnReader reader = new PgnReader(path)) {
+            PgnGame game;
+            while ((game = reader.nextGame()) != null) {
+                plies += game.getMoves().size();
+                if (reader.getGamesRead() % REPORT_EVERY == 0) {
+                    report(reader, plies, start);
+                }
+            }
+            report(reader, plies, start);
+        }
+    }
+
+    private static void report(final PgnReader reader, final long plies, final long start) {
+        final double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+        final Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%12d games %14d plies %10.1f MB  %10.0f games/s %8.1f MB/s  heap %d MB%n",
+                reader.getGamesRead(), plies, reader.getBytesRead() / 1e6, reader.getGamesRead() / seconds,
+                reader.getBytesRead() / 1e6 / seconds, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+}
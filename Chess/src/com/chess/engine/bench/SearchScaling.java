@@ -0,0 +1,54 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.LazySmp;
+import com.chess.engine.player.ai.ParallelAlphaBeta;
+import com.chess.engine.player.ai.TranspositionTable;
+
+public final class SearchScaling {/*times the serial search against both parallel modes at the same depth, e.g.
+    java com.chess.engine.bench.SearchScaling 7 8,16,32 runs depth 7 on 8, 16 and 32 threads*/
+
+    private SearchScaling() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        final String threadList = args.length > 1 ? args[1] : "8,16,32";
+        final Board board = Board.createStandardBoard();
+
+        final AlphaBeta serial = new AlphaBeta(depth, new TranspositionTable());
+        final long serialTime = time(() -> serial.execute(board));
+        report("serial", 1, serialTime, serial.getNodesSearched(), serial.getFirstMoveCutoffRate(), serialTime);
+
+        for (final String token : threadList.split(",")) {
+            final int threads = Integer.parseInt(token.trim());
+
+            final ParallelAlphaBeta rootSplit = new ParallelAlphaBeta(depth, threads);
+            final long rootSplitTime = time(() -> rootSplit.execute(board));
+            report("root split", threads, rootSplitTime, rootSplit.getNodesSearched(),
+                   rootSplit.getFirstMoveCutoffRate(), serialTime);
+            rootSplit.shutdown();
+
+            final LazySmp lazySmp = new LazySmp(depth, threads, new TranspositionTable());
+            final long lazySmpTime = time(() -> lazySmp.execute(board));
+            report("lazy smp", threads, lazySmpTime, lazySmp.getNodesSearched(),
+                   lazySmp.getFirstMoveCutoffRate(), serialTime);
+            lazySmp.shutdown();
+        }
+    }
+
+    private static long time(final Runnable search) {
+        final long start = System.nanoTime();
+        search.run();
+        return Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void report(final String mode, final int threads, final long millis, final long nodes,
+                               final double firstMoveCutoffRate, final long serialMillis) {
+        System.out.printf("%-10s %3d threads %8d ms %12d nodes %10d nps  first move cutoffs %5.1f%%  speedup %.2f%n",
+                mode, threads, millis, nodes, nodes * 1000 / millis, firstMoveCutoffRate * 100,
+                (double) serialMillis / millis);
+    }
+}
@@ -0,0 +1,133 @@
+package com.chess.engine.bench;
+
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.chess.engine.server.GameServer;
+import com.chess.engine.server.GameService;
+import com.chess.engine.server.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ServerLoad {/*a stand-in for many bot clients: starts a GameServer in this process and lets every
+    client connection play engine against engine games over the socket, then reports the latency of a go as the client
+    sees it, the time a whole game took, and games per second, e.g.
+        java com.chess.engine.bench.ServerLoad 500 2 20 2
+    for 500 clients playing 2 games each of at most 20 plies at depth 2*/
+
+    private ServerLoad() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static void main(final String[] args) throws Exception {
+        //ServerLoad [clients] [games per client] [max plies] [depth] [search threads]
+        final int clients = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        final int gamesPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        final int maxPlies = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        final int depth = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        final int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        final TranspositionTable sharedTable = new TranspositionTable(128);
+        final EvaluationCache sharedCache = new EvaluationCache(new StandardBoardEvaluator(true), 1 << 20);
+        final LatencyHistogram moveLatency = new LatencyHistogram();
+        final LatencyHistogram gameLatency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        try (final GameService service = new GameService(() -> new AlphaBeta(depth, sharedTable, 0, sharedCache),
+                                                             threads);
+             final GameServer server = new GameServer(service, 0)) {
+            server.start();
+            final ExecutorService clientThreads = GameService.newSessionExecutor();
+            final long start = System.nanoTime();
+            final List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                running.add(clientThreads.submit(() -> {
+                    try {
+                        playGames(server.getPort(), gamesPerClient, maxPlies, moveLatency, gameLatency);
+                    } catch (final IOException e) {
+                        failures.increment();
+                    }
+                }));
+            }
+            for (final Future<?> future : running) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    failures.increment();
+                }
+            }
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            clientThreads.shutdownNow();
+
+            System.out.printf("%d clients x %d games, depth %d, %d search threads%n", clients, gamesPerClient, depth,
+                    threads);
+            System.out.printf("games   %d in %.1fs = %.1f games/s, %d failed clients%n", gameLatency.getCount(),
+                    seconds, gameLatency.getCount() / seconds, failures.sum());
+            System.out.println("go      " + moveLatency + "  (client round trip)");
+            System.out.println("search  " + service.getMoveLatency() + "  (queue and search on the server)");
+            System.out.println("game    " + gameLatency);
+            System.out.println(sharedCache);
+        }
+    }
+
+    private static void playGames(final int port,
+                                  final int games,
+                                  final int maxPlies,
+                                  final LatencyHistogram moveLatency,
+                                  final LatencyHistogram gameLatency) throws IOException {
+        try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             final BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             final Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            socket.setTcpNoDelay(true);
+            for (int game = 0; game < games; game++) {
+                final long gameStart = System.nanoTime();
+                final String id = field(request(in, out, "{\"cmd\":\"new\"}"), "game");
+                for (int ply = 0; ply < maxPlies; ply++) {
+                    final long moveStart = System.nanoTime();
+                    final String reply = request(in, out, "{\"cmd\":\"go\",\"game\":" + id + "}");
+                    moveLatency.recordNanos(System.nanoTime() - moveStart);
+                    if (!reply.contains("\"status\":\"ONGOING\"")) {
+                        break;
+                    }
+                }
+                request(in, out, "{\"cmd\":\"close\",\"game\":" + id + "}");
+                gameLatency.recordNanos(System.nanoTime() - gameStart);
+            }
+        }
+    }
+
+    private static String request(final BufferedReader in, final Writer out, final String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+        final String reply = in.readLine();
+        if (reply == null || !reply.startsWith("{\"ok\":true")) {
+            throw new IOException("request " + line + " failed: " + reply);
+        }
+        return reply;
+    }
+
+    private static String field(final String json, final String name) {
+        //only for numbers, which is all the client reads back
+        final int start = json.indexOf("\"" + name + "\":") + name.length() + 3;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return json.substring(start, end);
+    }
+}
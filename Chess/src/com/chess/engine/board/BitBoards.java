@@ -0,0 +1,159 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+public final class BitBoards {//precomputed attack sets, bit i of a long is tile coordinate i (a8 = 0, h1 = 63)
+
+    public static final long[] SQUARE_MASKS = initSquareMasks();
+    public static final long[] FILE_MASKS = initFileMasks();
+    public static final long[] RANK_MASKS = initRankMasks();
+
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][]{
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[][]{
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperAttacks(new int[][]{{-1, -1}, {-1, 1}}), //white pawns capture towards the eighth rank
+            initLeaperAttacks(new int[][]{{1, -1}, {1, 1}})    //black pawns capture towards the first rank
+    };
+
+    /*the eight ray directions, rows are {row step, column step}. The first four walk towards higher tile coordinates,
+    the last four towards lower ones, which decides how the nearest blocker on a ray is found*/
+    private static final int[][] DIRECTIONS = {
+            {0, 1}, {1, -1}, {1, 0}, {1, 1},
+            {0, -1}, {-1, 1}, {-1, 0}, {-1, -1}};
+    private static final int[] ROOK_DIRECTIONS = {0, 2, 4, 6};
+    private static final int[] BISHOP_DIRECTIONS = {1, 3, 5, 7};
+    private static final long[][] RAYS = initRays();
+    private static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    private static final long[][] LINES = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    static {
+        //for two tiles on one rank, file or diagonal: the tiles strictly between them and the whole line through both
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            final int opposite = d ^ 4;
+            for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+                long remaining = RAYS[d][from];
+                while (remaining != 0) {
+                    final int to = Long.numberOfTrailingZeros(remaining);
+                    BETWEEN[from][to] = RAYS[d][from] & RAYS[opposite][to];
+                    LINES[from][to] = RAYS[d][from] | RAYS[opposite][from] | SQUARE_MASKS[from];
+                    remaining &= remaining - 1;
+                }
+            }
+        }
+    }
+    private static final int NUM_PIECE_TYPES = Piece.PieceType.values().length;
+
+    private BitBoards() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    private static long[] initSquareMasks() {
+        final long[] masks = new long[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            masks[i] = 1L << i;
+        }
+        return masks;
+    }
+
+    private static long[] initFileMasks() {
+        final long[] masks = new long[BoardUtils.NUM_TILES_PER_ROW];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            masks[i % BoardUtils.NUM_TILES_PER_ROW] |= 1L << i;
+        }
+        return masks;
+    }
+
+    private static long[] initRankMasks() {
+        final long[] masks = new long[BoardUtils.NUM_TILES_PER_ROW];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            masks[i / BoardUtils.NUM_TILES_PER_ROW] |= 1L << i;
+        }
+        return masks;
+    }
+
+    private static long[] initLeaperAttacks(final int[][] steps) {
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final int row = i / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = i % BoardUtils.NUM_TILES_PER_ROW;
+            for (final int[] step : steps) {
+                final int r = row + step[0];
+                final int c = column + step[1];
+                if (r >= 0 && r < BoardUtils.NUM_TILES_PER_ROW && c >= 0 && c < BoardUtils.NUM_TILES_PER_ROW) {
+                    attacks[i] |= 1L << (r * BoardUtils.NUM_TILES_PER_ROW + c); //working in rows and columns means no wrap around the edges
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static long[][] initRays() {
+        final long[][] rays = new long[DIRECTIONS.length][BoardUtils.NUM_TILES];
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                int r = i / BoardUtils.NUM_TILES_PER_ROW + DIRECTIONS[d][0];
+                int c = i % BoardUtils.NUM_TILES_PER_ROW + DIRECTIONS[d][1];
+                while (r >= 0 && r < BoardUtils.NUM_TILES_PER_ROW && c >= 0 && c < BoardUtils.NUM_TILES_PER_ROW) {
+                    rays[d][i] |= 1L << (r * BoardUtils.NUM_TILES_PER_ROW + c);
+                    r += DIRECTIONS[d][0];
+                    c += DIRECTIONS[d][1];
+                }
+            }
+        }
+        return rays;
+    }
+
+    private static long rayAttacks(final int direction, final int square, final long occupancy) {
+        final long ray = RAYS[direction][square];
+        final long blockers = ray & occupancy;
+        if (blockers == 0) {
+            return ray;
+        }
+        //the nearest blocker is the lowest set bit on a positive ray and the highest set bit on a negative ray
+        final int blocker = direction < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[direction][blocker]; //everything up to and including the blocker
+    }
+
+    public static long rookAttacks(final int square, final long occupancy) {
+        long attacks = 0L;
+        for (final int direction : ROOK_DIRECTIONS) {
+            attacks |= rayAttacks(direction, square, occupancy);
+        }
+        return attacks;
+    }
+
+    public static long bishopAttacks(final int square, final long occupancy) {
+        long attacks = 0L;
+        for (final int direction : BISHOP_DIRECTIONS) {
+            attacks |= rayAttacks(direction, square, occupancy);
+        }
+        return attacks;
+    }
+
+    public static long queenAttacks(final int square, final long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    public static long between(final int from, final int to) {
+        //empty unless the two tiles share a rank, file or diagonal
+        return BETWEEN[from][to];
+    }
+
+    public static long line(final int from, final int to) {
+        return LINES[from][to];
+    }
+
+    public static long pawnAttacks(final Alliance alliance, final int square) {
+        return PAWN_ATTACKS[alliance.ordinal()][square];
+    }
+
+    public static int pieceIndex(final Alliance alliance, final Piece.PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    public static boolean isSet(final long bitboard, final int square) {
+        return (bitboard & SQUARE_MASKS[square]) != 0;
+    }
+}
@@ -6,13 +6,16 @@ import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
 
 import java.util.*;
 
 public class Board {
 
-    private final List<Tile> gameBoard;
+    private final Piece[] boardConfig; //the piece on each tile coordinate, null if the tile is empty
+    private final long[] pieceBitboards; //one 64 bit set per alliance and piece type, see BitBoards.pieceIndex
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long allOccupancy;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
 
@@ -21,17 +24,48 @@ public class Board {
     private final Player currentPlayer;
 
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
+    private final long pawnKey; //the part of the Zobrist key that comes from the pawns, keys the pawn hash table
+    private final int pieceSquareScore; //material and piece-square bonuses, white minus black, see PieceSquareTables
+    private final int halfMoveClock; //moves since the last pawn move or capture, for the fifty move rule
+    private final int fullMoveNumber;
 
     private Board(Builder builder) {
-        this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        this.boardConfig = builder.boardConfig.clone();
+        this.pieceBitboards = new long[BitBoards.pieceIndex(Alliance.BLACK, Piece.PieceType.ROOK) + 1];
+        long white = 0L;
+        long black = 0L;
+        for(final Piece piece : this.boardConfig){
+            if(piece != null){
+                final long mask = BitBoards.SQUARE_MASKS[piece.getPiecePosition()];
+                this.pieceBitboards[BitBoards.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())] |= mask;
+                if(piece.getPieceAlliance().isWhite()){
+                    white |= mask;
+                } else {
+                    black |= mask;
+                }
+            }
+        }
+        this.whiteOccupancy = white;
+        this.blackOccupancy = black;
+        this.allOccupancy = white | black;
+        this.whitePieces = calculateActivePieces(this.boardConfig, this.whiteOccupancy);
+        this.blackPieces = calculateActivePieces(this.boardConfig, this.blackOccupancy);
         this.enPassantPawn = builder.enPassantPawn;
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-        this.whitePlayer = new WhitePlayer (this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer (this, whiteStandardLegalMoves, blackStandardLegalMoves);
+        //each player gets its own moves only, neither needs the other side's list to find which tiles are attacked
+        this.whitePlayer = new WhitePlayer (this, calculateLegalMoves(this.whitePieces));
+        this.blackPlayer = new BlackPlayer (this, calculateLegalMoves(this.blackPieces));
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        this.castlingRights = calculateCastlingRights();
+        this.zobristKey = builder.hasZobristKey ? builder.zobristKey : Zobrist.calculateKey(this);
+        /*a move hands over the key it updated incrementally, only boards set up from scratch pay for the full
+        calculation*/
+        this.pieceSquareScore = builder.hasPieceSquareScore ? builder.pieceSquareScore :
+                                PieceSquareTables.calculateScore(this);
+        this.pawnKey = builder.hasPawnKey ? builder.pawnKey : Zobrist.calculatePawnKey(this);
+        this.halfMoveClock = builder.halfMoveClock;
+        this.fullMoveNumber = builder.fullMoveNumber;
     }
 
     public Player whitePlayer(){
@@ -50,7 +84,7 @@ public class Board {
     public String toString (){
         final StringBuilder builder = new StringBuilder();
         for(int i = 0; i < BoardUtils.NUM_TILES; i++){
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getTile(i).toString();
             builder.append(String.format("%3s", tileText));
             if((i+1) % BoardUtils.NUM_TILES_PER_ROW == 0){
                 builder.append("\n");
@@ -63,6 +97,50 @@ public class Board {
         return this.enPassantPawn;
     }
 
+    public int getCastlingRights(){
+        return this.castlingRights;
+    }
+
+    public long getZobristKey(){
+        return this.zobristKey;
+    }
+
+    public long getPawnKey(){
+        return this.pawnKey;
+    }
+
+    public int getPieceSquareScore(){
+        return this.pieceSquareScore;
+    }
+
+    public int getHalfMoveClock(){
+        return this.halfMoveClock;
+    }
+
+    public int getFullMoveNumber(){
+        return this.fullMoveNumber;
+    }
+
+    private int calculateCastlingRights(){
+        //a castle is still available as long as the king and that rook are on their starting tiles and have never moved
+        int rights = 0;
+        if(isUnmoved(60, Alliance.WHITE, Piece.PieceType.KING)){
+            rights |= isUnmoved(63, Alliance.WHITE, Piece.PieceType.ROOK) ? BoardUtils.WHITE_KING_SIDE : 0;
+            rights |= isUnmoved(56, Alliance.WHITE, Piece.PieceType.ROOK) ? BoardUtils.WHITE_QUEEN_SIDE : 0;
+        }
+        if(isUnmoved(4, Alliance.BLACK, Piece.PieceType.KING)){
+            rights |= isUnmoved(7, Alliance.BLACK, Piece.PieceType.ROOK) ? BoardUtils.BLACK_KING_SIDE : 0;
+            rights |= isUnmoved(0, Alliance.BLACK, Piece.PieceType.ROOK) ? BoardUtils.BLACK_QUEEN_SIDE : 0;
+        }
+        return rights;
+    }
+
+    private boolean isUnmoved(final int tileCoordinate, final Alliance alliance, final Piece.PieceType pieceType){
+        final Piece piece = this.boardConfig[tileCoordinate];
+        return piece != null && piece.getPieceAlliance() == alliance && piece.getPieceType() == pieceType &&
+               piece.isFirstMove();
+    }
+
     public Collection<Piece> getBlackPieces(){
         return this.blackPieces;
     }
@@ -82,36 +160,73 @@ public class Board {
     }
 
     public Tile getTile(int tileCoordinate){
-        return gameBoard.get(tileCoordinate);//retrives a tile (most likely to be used for capturing pieces))
+        return Tile.createTile(tileCoordinate, this.boardConfig[tileCoordinate]);/*retrives a tile (most likely to be used for
+        capturing pieces)), empty tiles come straight from the empty tile cache*/
     }
 
-    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, Alliance alliance){
-        //keeps track of the active pieces of each alliance
-        final List<Piece> activePieces = new ArrayList<>();
+    public Piece getPiece(final int tileCoordinate){
+        return this.boardConfig[tileCoordinate];
+    }
 
-        for(final Tile tile : gameBoard){
-            if(tile.isTileOccupied()){ //if a tile is occupied in the current gameBoard
-                final Piece piece = tile.getPiece();//get the piece
-                if(piece.getPieceAlliance() == alliance){ //if the pieces alliance is equal to the alliance passed
-                    //the instance variables above both take in different alliances depending on the variable
-                    activePieces.add(piece); //if the piece is part of that alliance, add the arraylist
-                }
-            }
+    public long getPieceBitboard(final Alliance alliance, final Piece.PieceType pieceType){
+        return this.pieceBitboards[BitBoards.pieceIndex(alliance, pieceType)];
+    }
+
+    public long getAllianceOccupancy(final Alliance alliance){
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    public long getOccupancy(){
+        return this.allOccupancy;
+    }
+
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance byAlliance){
+        /*looks outwards from the tile with each piece's own attack pattern, if that pattern hits a piece of the same kind
+        from byAlliance then that piece attacks the tile. A pawn attacks the tile if a pawn of the other colour standing
+        there would attack it back. No move lists are needed, just the bitboards the constructor already filled in*/
+        final Alliance defender = byAlliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        if((BitBoards.pawnAttacks(defender, tileCoordinate) &
+            getPieceBitboard(byAlliance, Piece.PieceType.PAWN)) != 0){
+            return true;
+        }
+        if((BitBoards.KNIGHT_ATTACKS[tileCoordinate] & getPieceBitboard(byAlliance, Piece.PieceType.KNIGHT)) != 0){
+            return true;
+        }
+        if((BitBoards.KING_ATTACKS[tileCoordinate] & getPieceBitboard(byAlliance, Piece.PieceType.KING)) != 0){
+            return true;
         }
-        return ImmutableList.copyOf(activePieces); //return the immutable copy of the arrayList of active pieces
+        final long queens = getPieceBitboard(byAlliance, Piece.PieceType.QUEEN);
+        if((BitBoards.bishopAttacks(tileCoordinate, this.allOccupancy) &
+            (getPieceBitboard(byAlliance, Piece.PieceType.BISHOP) | queens)) != 0){
+            return true;
+        }
+        return (BitBoards.rookAttacks(tileCoordinate, this.allOccupancy) &
+                (getPieceBitboard(byAlliance, Piece.PieceType.ROOK) | queens)) != 0;
+    }
+
+    public long getAttackers(final int tileCoordinate, final Alliance byAlliance, final long occupancy){
+        /*every piece of byAlliance attacking the tile, with the sliders blocked by the given occupancy rather than the
+        board's own, so a caller can ask about the board as it would be with a piece lifted off or put down*/
+        final Alliance defender = byAlliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final long queens = getPieceBitboard(byAlliance, Piece.PieceType.QUEEN);
+        return (BitBoards.pawnAttacks(defender, tileCoordinate) & getPieceBitboard(byAlliance, Piece.PieceType.PAWN)) |
+               (BitBoards.KNIGHT_ATTACKS[tileCoordinate] & getPieceBitboard(byAlliance, Piece.PieceType.KNIGHT)) |
+               (BitBoards.KING_ATTACKS[tileCoordinate] & getPieceBitboard(byAlliance, Piece.PieceType.KING)) |
+               (BitBoards.bishopAttacks(tileCoordinate, occupancy) &
+                (getPieceBitboard(byAlliance, Piece.PieceType.BISHOP) | queens)) |
+               (BitBoards.rookAttacks(tileCoordinate, occupancy) &
+                (getPieceBitboard(byAlliance, Piece.PieceType.ROOK) | queens));
     }
 
-    private static List<Tile> createGameBoard (final Builder builder){
-        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
-        for(int i =0; i < BoardUtils.NUM_TILES ; i++){
-            tiles[i] = Tile.createTile(i, builder.boardConfig.get(i)); /*get the piece that is associated with tile i
-            and create a tile from it*/
-            /*for the create standard board method, it takes care of putting pieces on the correct tiles
-            then the create game board method takes care of creating the tiles 0-63 and then the createTile()
-            method will loop through and put the correct piece on the correct tile and if the tile is unoccupied
-            the method will create an empty tile which can be retrieved through the EMPTY_TILE_CACHE*/
+    private static Collection<Piece> calculateActivePieces(final Piece[] boardConfig, final long occupancy){
+        //keeps track of the active pieces of each alliance by walking the set bits of that alliance's occupancy
+        final List<Piece> activePieces = new ArrayList<>(Long.bitCount(occupancy));
+        long remaining = occupancy;
+        while(remaining != 0){
+            activePieces.add(boardConfig[Long.numberOfTrailingZeros(remaining)]);
+            remaining &= remaining - 1; //clears the lowest set bit
         }
-        return ImmutableList.copyOf(tiles);
+        return Collections.unmodifiableList(activePieces); //return the unmodifiable view of the arrayList of active pieces
     }
 
     public static Board createStandardBoard (){
@@ -162,17 +277,25 @@ public class Board {
 
     public static class Builder {
 
-        Map<Integer, Piece> boardConfig;
+        Piece[] boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        long zobristKey;
+        boolean hasZobristKey;
+        int pieceSquareScore;
+        boolean hasPieceSquareScore;
+        long pawnKey;
+        boolean hasPawnKey;
+        int halfMoveClock;
+        int fullMoveNumber = 1;
 
         public Builder(){
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
         }
 
         public Builder setPiece (final Piece piece){/*sets the piece to the location immutablely so that it can only be
             moved when it is that players turn*/
-            this.boardConfig.put(piece.getPiecePosition(), piece);// the position on the board of a piece is an integer
+            this.boardConfig[piece.getPiecePosition()] = piece;// the position on the board of a piece is an integer
             return this;
         }
 
@@ -188,5 +311,33 @@ public class Board {
         public void setEnPassantPawn (Pawn enPassantPawn){
             this.enPassantPawn = enPassantPawn;
         }
+
+        public Builder setZobristKey (final long zobristKey){
+            this.zobristKey = zobristKey;
+            this.hasZobristKey = true;
+            return this;
+        }
+
+        public Builder setPieceSquareScore (final int pieceSquareScore){
+            this.pieceSquareScore = pieceSquareScore;
+            this.hasPieceSquareScore = true;
+            return this;
+        }
+
+        public Builder setPawnKey (final long pawnKey){
+            this.pawnKey = pawnKey;
+            this.hasPawnKey = true;
+            return this;
+        }
+
+        public Builder setHalfMoveClock (final int halfMoveClock){
+            this.halfMoveClock = halfMoveClock;
+            return this;
+        }
+
+        public Builder setFullMoveNumber (final int fullMoveNumber){
+            this.fullMoveNumber = fullMoveNumber;
+            return this;
+        }
     }
 }
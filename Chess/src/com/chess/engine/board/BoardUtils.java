@@ -25,6 +25,13 @@ public class BoardUtils {//class for basic rules of chess to keep the moves cons
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
 
+    //castling rights as bit flags, a board's rights are any combination of these four
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int[] CASTLING_MASKS = initCastlingMasks();
+
     private static boolean[] initRow(int rowNumber) {
         final boolean[] row = new boolean[NUM_TILES];//creates a boolean array the size of the board
         do{
@@ -47,6 +54,20 @@ public class BoardUtils {//class for basic rules of chess to keep the moves cons
         return column;
     }
 
+    private static int[] initCastlingMasks() {
+        /*moving from or to one of these tiles takes away the castling rights that depend on the king or rook there,
+        so a move's new rights are the old rights and'ed with the masks of its two tiles*/
+        final int[] masks = new int[NUM_TILES];
+        Arrays.fill(masks, WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        masks[0] &= ~BLACK_QUEEN_SIDE;
+        masks[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        masks[7] &= ~BLACK_KING_SIDE;
+        masks[56] &= ~WHITE_QUEEN_SIDE;
+        masks[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        masks[63] &= ~WHITE_KING_SIDE;
+        return masks;
+    }
+
     private BoardUtils (){
         throw new RuntimeException("You cannot Instantiate!");
     }
@@ -0,0 +1,214 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+
+public final class FenUtils {/*reads and writes positions in Forsyth-Edwards Notation. The board has no castling flags
+    of its own, a castling right is a king and rook that have not moved yet, so the castling field becomes isFirstMove on
+    those pieces and is read back from Board.getCastlingRights. Parsing walks the string once by index, the only objects
+    it creates are the pieces and the board itself*/
+
+    public static final String STANDARD_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private FenUtils() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static Board createGameFromFEN(final String fen) {
+        final Board.Builder builder = new Board.Builder();
+        final int length = fen.length();
+        int index = skipSpaces(fen, 0);
+
+        //piece placement, rank 8 to rank 1, which is tile 0 to tile 63
+        int tile = 0;
+        final int placementStart = index;
+        while (index < length && fen.charAt(index) != ' ') {
+            final char symbol = fen.charAt(index++);
+            if (symbol == '/') {
+                continue;
+            }
+            if (symbol >= '1' && symbol <= '8') {
+                tile += symbol - '0';
+            } else if (tile < BoardUtils.NUM_TILES) {
+                tile++; //pieces are created once the castling field is known
+            } else {
+                throw new IllegalArgumentException("Too many tiles in FEN: " + fen);
+            }
+        }
+        if (tile != BoardUtils.NUM_TILES) {
+            throw new IllegalArgumentException("FEN must describe 64 tiles: " + fen);
+        }
+        final int placementEnd = index;
+
+        index = skipSpaces(fen, index);
+        final Alliance sideToMove = index < length && fen.charAt(index) == 'b' ? Alliance.BLACK : Alliance.WHITE;
+        if (index < length && fen.charAt(index) != 'w' && fen.charAt(index) != 'b') {
+            throw new IllegalArgumentException("Side to move must be w or b: " + fen);
+        }
+        index = skipSpaces(fen, skipField(fen, index));
+
+        int castlingRights = 0;
+        while (index < length && fen.charAt(index) != ' ') {
+            switch (fen.charAt(index++)) {
+                case 'K': castlingRights |= BoardUtils.WHITE_KING_SIDE; break;
+                case 'Q': castlingRights |= BoardUtils.WHITE_QUEEN_SIDE; break;
+                case 'k': castlingRights |= BoardUtils.BLACK_KING_SIDE; break;
+                case 'q': castlingRights |= BoardUtils.BLACK_QUEEN_SIDE; break;
+                case '-': break;
+                default: throw new IllegalArgumentException("Bad castling field in FEN: " + fen);
+            }
+        }
+        index = skipSpaces(fen, index);
+
+        int enPassantTile = -1;
+        if (index + 1 < length && fen.charAt(index) != '-') {
+            final int file = fen.charAt(index) - 'a';
+            final int rank = fen.charAt(index + 1) - '1';
+            if (file < 0 || file > 7 || (rank != 2 && rank != 5)) {
+                throw new IllegalArgumentException("Bad en passant square in FEN: " + fen);
+            }
+            enPassantTile = (7 - rank) * BoardUtils.NUM_TILES_PER_ROW + file;
+        }
+        index = skipSpaces(fen, skipField(fen, index));
+
+        //the move counters are optional, plenty of position files leave them out
+        int halfMoveClock = 0;
+        while (index < length && fen.charAt(index) >= '0' && fen.charAt(index) <= '9') {
+            halfMoveClock = halfMoveClock * 10 + (fen.charAt(index++) - '0');
+        }
+        index = skipSpaces(fen, index);
+        int fullMoveNumber = 0;
+        while (index < length && fen.charAt(index) >= '0' && fen.charAt(index) <= '9') {
+            fullMoveNumber = fullMoveNumber * 10 + (fen.charAt(index++) - '0');
+        }
+
+        tile = 0;
+        for (int i = placementStart; i < placementEnd; i++) {
+            final char symbol = fen.charAt(i);
+            if (symbol == '/') {
+                continue;
+            }
+            if (symbol >= '1' && symbol <= '8') {
+                tile += symbol - '0';
+                continue;
+            }
+            builder.setPiece(createPiece(symbol, tile, castlingRights));
+            tile++;
+        }
+        if (enPassantTile >= 0) {
+            //the pawn that just jumped stands one tile past the en passant square, seen from the side that moved it
+            final int pawnTile = enPassantTile + (sideToMove.isWhite() ? 8 : -8);
+            final Piece pawn = builder.boardConfig[pawnTile];
+            if (pawn != null && pawn.getPieceType() == Piece.PieceType.PAWN && pawn.getPieceAlliance() != sideToMove) {
+                builder.setEnPassantPawn((Pawn) pawn);
+            }
+        }
+        builder.setMoveMaker(sideToMove);
+        builder.setHalfMoveClock(halfMoveClock);
+        builder.setFullMoveNumber(Math.max(1, fullMoveNumber));
+        return builder.build();
+    }
+
+    public static String createFENFromGame(final Board board) {
+        final StringBuilder fen = new StringBuilder(90);
+        for (int rank = 0; rank < BoardUtils.NUM_TILES_PER_ROW; rank++) {
+            int emptyTiles = 0;
+            for (int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+                final Piece piece = board.getPiece(rank * BoardUtils.NUM_TILES_PER_ROW + file);
+                if (piece == null) {
+                    emptyTiles++;
+                    continue;
+                }
+                if (emptyTiles > 0) {
+                    fen.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                final char symbol = piece.getPieceType().toString().charAt(0);
+                fen.append(piece.getPieceAlliance().isWhite() ? symbol : Character.toLowerCase(symbol));
+            }
+            if (emptyTiles > 0) {
+                fen.append((char) ('0' + emptyTiles));
+            }
+            if (rank < BoardUtils.NUM_TILES_PER_ROW - 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(board.currentPlayer().getAlliance().isWhite() ? " w " : " b ");
+
+        final int castlingRights = board.getCastlingRights();
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & BoardUtils.WHITE_KING_SIDE) != 0) fen.append('K');
+            if ((castlingRights & BoardUtils.WHITE_QUEEN_SIDE) != 0) fen.append('Q');
+            if ((castlingRights & BoardUtils.BLACK_KING_SIDE) != 0) fen.append('k');
+            if ((castlingRights & BoardUtils.BLACK_QUEEN_SIDE) != 0) fen.append('q');
+        }
+
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && enPassantPawn.getPieceAlliance() != board.currentPlayer().getAlliance()) {
+            fen.append(' ').append(BoardUtils.getPositionAtCoordinate(
+                    enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * 8));
+        } else {
+            fen.append(" -");
+        }
+
+        return fen.append(' ').append(board.getHalfMoveClock())
+                  .append(' ').append(board.getFullMoveNumber()).toString();
+    }
+
+    private static Piece createPiece(final char symbol, final int tile, final int castlingRights) {
+        final Alliance alliance = Character.isUpperCase(symbol) ? Alliance.WHITE : Alliance.BLACK;
+        final boolean white = alliance.isWhite();
+        switch (Character.toLowerCase(symbol)) {
+            case 'p':
+                //a pawn may only jump from its starting rank, so the first move flag can follow the rank
+                return new Pawn(alliance, tile, white ? BoardUtils.SECOND_RANK[tile] : BoardUtils.SEVENTH_RANK[tile]);
+            case 'n':
+                return new Knight(alliance, tile, false);
+            case 'b':
+                return new Bishop(alliance, tile, false);
+            case 'q':
+                return new Queen(alliance, tile, false);
+            case 'r':
+                return new Rook(alliance, tile, (castlingRights & rookCastlingRight(tile)) != 0);
+            case 'k':
+                final int kingRights = white ? BoardUtils.WHITE_KING_SIDE | BoardUtils.WHITE_QUEEN_SIDE :
+                                       BoardUtils.BLACK_KING_SIDE | BoardUtils.BLACK_QUEEN_SIDE;
+                return new King(alliance, tile, tile == (white ? 60 : 4) && (castlingRights & kingRights) != 0);
+            default:
+                throw new IllegalArgumentException("Unknown piece in FEN: " + symbol);
+        }
+    }
+
+    private static int rookCastlingRight(final int tile) {
+        switch (tile) {
+            case 0: return BoardUtils.BLACK_QUEEN_SIDE;
+            case 7: return BoardUtils.BLACK_KING_SIDE;
+            case 56: return BoardUtils.WHITE_QUEEN_SIDE;
+            case 63: return BoardUtils.WHITE_KING_SIDE;
+            default: return 0;
+        }
+    }
+
+    private static int skipSpaces(final String fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipField(final String fen, int index) {
+        while (index < fen.length() && fen.charAt(index) != ' ') {
+            index++;
+        }
+        return index;
+    }
+}
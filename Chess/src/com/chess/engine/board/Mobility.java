@@ -0,0 +1,96 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+public final class Mobility {/*how many moves a side's pieces have, counted from the attack tables and the occupancy in
+    BitBoards rather than from move lists. Every piece counts the tiles it attacks that its own side does not hold,
+    pawns their pushes and their captures. The count is pseudo legal, it ignores pins, checks, castles and en passant,
+    which is close enough for an evaluation term and creates no moves at all. Board and SearchBoard give the same
+    count for the same position*/
+
+    private static final long NOT_A_FILE = ~BitBoards.FILE_MASKS[0];
+    private static final long NOT_H_FILE = ~BitBoards.FILE_MASKS[BoardUtils.NUM_TILES_PER_ROW - 1];
+    private static final long WHITE_SINGLE_PUSH_RANK = BitBoards.RANK_MASKS[5]; //the third rank, double pushes pass it
+    private static final long BLACK_SINGLE_PUSH_RANK = BitBoards.RANK_MASKS[2]; //the sixth rank
+
+    private Mobility() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static int count(final Board board, final Alliance alliance) {
+        return count(alliance.isWhite(),
+                board.getPieceBitboard(alliance, Piece.PieceType.PAWN),
+                board.getPieceBitboard(alliance, Piece.PieceType.KNIGHT),
+                board.getPieceBitboard(alliance, Piece.PieceType.BISHOP) |
+                board.getPieceBitboard(alliance, Piece.PieceType.QUEEN),
+                board.getPieceBitboard(alliance, Piece.PieceType.ROOK) |
+                board.getPieceBitboard(alliance, Piece.PieceType.QUEEN),
+                board.getPieceBitboard(alliance, Piece.PieceType.KING),
+                board.getAllianceOccupancy(alliance),
+                board.getAllianceOccupancy(alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE));
+    }
+
+    public static int count(final SearchBoard board, final int side) {
+        return count(side == SearchBoard.WHITE,
+                board.getBitboard(side, SearchBoard.PAWN),
+                board.getBitboard(side, SearchBoard.KNIGHT),
+                board.getBitboard(side, SearchBoard.BISHOP) | board.getBitboard(side, SearchBoard.QUEEN),
+                board.getBitboard(side, SearchBoard.ROOK) | board.getBitboard(side, SearchBoard.QUEEN),
+                board.getBitboard(side, SearchBoard.KING),
+                board.getOccupancy(side),
+                board.getOccupancy(side ^ 1));
+    }
+
+    private static int count(final boolean white,
+                             final long pawns,
+                             final long knights,
+                             final long diagonalSliders,
+                             final long straightSliders,
+                             final long king,
+                             final long own,
+                             final long enemy) {
+        /*a queen is walked once as a bishop and once as a rook, the two sets of tiles never overlap so the counts add
+        up to its own*/
+        final long occupied = own | enemy;
+        final long notOwn = ~own;
+        int count = countPawnMoves(white, pawns, enemy, occupied);
+        long remaining = knights;
+        while (remaining != 0) {
+            count += Long.bitCount(BitBoards.KNIGHT_ATTACKS[Long.numberOfTrailingZeros(remaining)] & notOwn);
+            remaining &= remaining - 1;
+        }
+        remaining = diagonalSliders;
+        while (remaining != 0) {
+            count += Long.bitCount(BitBoards.bishopAttacks(Long.numberOfTrailingZeros(remaining), occupied) & notOwn);
+            remaining &= remaining - 1;
+        }
+        remaining = straightSliders;
+        while (remaining != 0) {
+            count += Long.bitCount(BitBoards.rookAttacks(Long.numberOfTrailingZeros(remaining), occupied) & notOwn);
+            remaining &= remaining - 1;
+        }
+        if (king != 0) {
+            count += Long.bitCount(BitBoards.KING_ATTACKS[Long.numberOfTrailingZeros(king)] & notOwn);
+        }
+        return count;
+    }
+
+    private static int countPawnMoves(final boolean white, final long pawns, final long enemy, final long occupied) {
+        /*all pawns of a side at once: white pawns move towards tile 0, so one tile forward is a shift right by eight
+        and the captures are shifts by seven and nine, masked so no pawn wraps around onto the other edge of the board*/
+        final long empty = ~occupied;
+        if (white) {
+            final long singlePushes = (pawns >>> 8) & empty;
+            final long doublePushes = ((singlePushes & WHITE_SINGLE_PUSH_RANK) >>> 8) & empty;
+            return Long.bitCount(singlePushes) + Long.bitCount(doublePushes) +
+                   Long.bitCount(((pawns & NOT_A_FILE) >>> 9) & enemy) +
+                   Long.bitCount(((pawns & NOT_H_FILE) >>> 7) & enemy);
+        }
+        final long singlePushes = (pawns << 8) & empty;
+        final long doublePushes = ((singlePushes & BLACK_SINGLE_PUSH_RANK) << 8) & empty;
+        return Long.bitCount(singlePushes) + Long.bitCount(doublePushes) +
+               Long.bitCount(((pawns & NOT_H_FILE) << 9) & enemy) +
+               Long.bitCount(((pawns & NOT_A_FILE) << 7) & enemy);
+    }
+}
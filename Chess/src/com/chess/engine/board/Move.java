@@ -95,10 +95,65 @@ public abstract class Move {
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
         /*the previous line is to set the person who's current move it is, move maker, to the opponent because a player
         obviously only gets 1 move per turn*/
+        builder.setZobristKey(calculateZobristKey(null));
+        builder.setPieceSquareScore(calculatePieceSquareScore());
+        builder.setPawnKey(calculatePawnKey());
+        setMoveCounters(builder);
 
         return builder.build();
     }
 
+    protected void setMoveCounters(final Builder builder) {
+        //the fifty move clock starts over on a pawn move or a capture, the move number goes up once black has moved
+        final boolean resetsClock = this.movedPiece.getPieceType() == Piece.PieceType.PAWN || isAttack();
+        builder.setHalfMoveClock(resetsClock ? 0 : this.board.getHalfMoveClock() + 1);
+        builder.setFullMoveNumber(this.board.getFullMoveNumber() +
+                                  (this.board.currentPlayer().getAlliance().isBlack() ? 1 : 0));
+    }
+
+    protected long calculateZobristKey(final Pawn nextEnPassantPawn) {
+        /*the key of the board this move creates, worked out from the current board's key: the moved piece leaves its
+        tile and lands on the destination, a captured piece disappears, the side to move flips and the castling and
+        en passant parts are swapped for their new values*/
+        final int currentCoordinate = getCurrentCoordinate();
+        final int castlingRights = this.board.getCastlingRights();
+        long key = this.board.getZobristKey() ^ Zobrist.SIDE_KEY ^
+                   Zobrist.pieceKey(this.movedPiece) ^
+                   Zobrist.pieceKey(this.movedPiece.getPieceAlliance(), this.movedPiece.getPieceType(), this.destinationCoordinate) ^
+                   Zobrist.enPassantKey(this.board.getEnPassantPawn()) ^ Zobrist.enPassantKey(nextEnPassantPawn) ^
+                   Zobrist.castlingKey(castlingRights) ^
+                   Zobrist.castlingKey(castlingRights & BoardUtils.CASTLING_MASKS[currentCoordinate] &
+                                       BoardUtils.CASTLING_MASKS[this.destinationCoordinate]);
+        if (isAttack()) {
+            key ^= Zobrist.pieceKey(getAttackedPiece()); //the attacked piece's own tile, which differs for en passant
+        }
+        return key;
+    }
+
+    protected long calculatePawnKey() {
+        //the pawns only part of the key, which only changes when a pawn moves or a pawn is taken
+        long key = this.board.getPawnKey();
+        if (this.movedPiece.getPieceType() == Piece.PieceType.PAWN) {
+            key ^= Zobrist.pieceKey(this.movedPiece) ^
+                   Zobrist.pieceKey(this.movedPiece.getPieceAlliance(), Piece.PieceType.PAWN, this.destinationCoordinate);
+        }
+        if (isAttack() && getAttackedPiece().getPieceType() == Piece.PieceType.PAWN) {
+            key ^= Zobrist.pieceKey(getAttackedPiece());
+        }
+        return key;
+    }
+
+    protected int calculatePieceSquareScore() {
+        //the same update for the running score: the moved piece's worth on its old tile goes, on its new tile comes in
+        int score = this.board.getPieceSquareScore() - PieceSquareTables.score(this.movedPiece) +
+                    PieceSquareTables.score(this.movedPiece.getPieceAlliance(), this.movedPiece.getPieceType(),
+                                            this.destinationCoordinate);
+        if (isAttack()) {
+            score -= PieceSquareTables.score(getAttackedPiece());
+        }
+        return score;
+    }
+
     public static final class MajorMove extends Move {
         public MajorMove(final Board board,
                          final Piece movedPiece,
@@ -240,6 +295,10 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey(null));
+            builder.setPieceSquareScore(calculatePieceSquareScore());
+            builder.setPawnKey(calculatePawnKey());
+            setMoveCounters(builder);
             return builder.build();
         }
 
@@ -249,20 +308,25 @@ public abstract class Move {
 
         final Move decoratedMove;
         final Pawn promotedPawn;
-        public PawnPromotion(final Move decoratedMove) {
+        final Piece.PieceType promotionType;
+        public PawnPromotion(final Move decoratedMove, final Piece.PieceType promotionType) {
             super(decoratedMove.getBoard(), decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
             this.decoratedMove = decoratedMove;
             this.promotedPawn = (Pawn) decoratedMove.getMovedPiece();
+            this.promotionType = promotionType;
         }
 
         @Override
         public int hashCode() {
-            return decoratedMove.hashCode() + (31 * promotedPawn.hashCode());
+            return decoratedMove.hashCode() + (31 * promotedPawn.hashCode()) + this.promotionType.ordinal();
         }
 
         @Override
         public boolean equals(Object other) {
-            return this == other || other instanceof PawnPromotion && (this.decoratedMove.equals(other));
+            //the same two tiles with a different piece chosen is a different move
+            return this == other || other instanceof PawnPromotion &&
+                                    this.decoratedMove.equals(((PawnPromotion) other).decoratedMove) &&
+                                    this.promotionType == ((PawnPromotion) other).promotionType;
         }
 
         @Override
@@ -277,11 +341,27 @@ public abstract class Move {
             for(final Piece piece : pawnMovedBoard.currentPlayer().getOpponent().getActivePieces()){
                 builder.setPiece(piece);
             }
-            builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
+            final Piece promotionPiece = this.promotedPawn.getPromotionPiece(this.promotionType).movePiece(this);
+            builder.setPiece(promotionPiece);
             builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+            //the pawn move already updated the key, all that changes is the pawn turning into the new piece
+            builder.setZobristKey(pawnMovedBoard.getZobristKey() ^
+                                  Zobrist.pieceKey(this.promotedPawn.getPieceAlliance(), Piece.PieceType.PAWN, this.destinationCoordinate) ^
+                                  Zobrist.pieceKey(promotionPiece));
+            builder.setPieceSquareScore(pawnMovedBoard.getPieceSquareScore() -
+                                        PieceSquareTables.score(this.promotedPawn.getPieceAlliance(), Piece.PieceType.PAWN, this.destinationCoordinate) +
+                                        PieceSquareTables.score(promotionPiece));
+            builder.setPawnKey(pawnMovedBoard.getPawnKey() ^
+                               Zobrist.pieceKey(this.promotedPawn.getPieceAlliance(), Piece.PieceType.PAWN, this.destinationCoordinate));
+            builder.setHalfMoveClock(pawnMovedBoard.getHalfMoveClock());
+            builder.setFullMoveNumber(pawnMovedBoard.getFullMoveNumber());
             return builder.build();
         }
 
+        public Piece.PieceType getPromotionType() {
+            return this.promotionType;
+        }
+
         @Override
         public boolean isAttack() {
             return this.decoratedMove.isAttack();
@@ -321,6 +401,10 @@ public abstract class Move {
             builder.setEnPassantPawn(movedPawn);//the only time en Passant is able to be executed is when a pawn jump occurs,
             //therefore the pawn jump will always set the pawn that jumped to be the en Passant pawn.
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey(movedPawn));
+            builder.setPieceSquareScore(calculatePieceSquareScore());
+            builder.setPawnKey(calculatePawnKey());
+            setMoveCounters(builder);
             return builder.build();
         }
 
@@ -370,8 +454,14 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.movePiece(this));//this is the king
 
-            builder.setPiece(new Rook(this.castleRook.getPieceAlliance(), this.castleRookDestination));
+            builder.setPiece(new Rook(this.castleRook.getPieceAlliance(), this.castleRookDestination, false));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey(null) ^ Zobrist.pieceKey(this.castleRook) ^
+                                  Zobrist.pieceKey(this.castleRook.getPieceAlliance(), Piece.PieceType.ROOK, this.castleRookDestination));
+            builder.setPieceSquareScore(calculatePieceSquareScore() - PieceSquareTables.score(this.castleRook) +
+                                        PieceSquareTables.score(this.castleRook.getPieceAlliance(), Piece.PieceType.ROOK, this.castleRookDestination));
+            builder.setPawnKey(this.board.getPawnKey()); //no pawn takes part in a castle
+            setMoveCounters(builder);
             return builder.build();
         }
 
@@ -0,0 +1,199 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+public final class MoveDecoder {/*turns a move written as SAN (Nbd2, exd6, e8=Q+, O-O) or UCI (g1f3, e7e8q) into the
+    board's Move. The legal moves of a position are bucketed once by destination tile and piece type, so a token only
+    looks at the one or two moves that land on its square with its piece instead of every legal move.
+
+    A decoder keeps its buckets and reuses them for the next position, it is not thread safe. A promotion has to name
+    its piece, e7e8n and e8=N are the knight promotion and e7e8 or e8 alone are no move at all*/
+
+    private static final int NUM_PIECE_TYPES = Piece.PieceType.values().length;
+    private static final int NUM_BUCKETS = BoardUtils.NUM_TILES * NUM_PIECE_TYPES;
+
+    private final int[] bucketStart = new int[NUM_BUCKETS + 1];
+    private final int[] bucketFill = new int[NUM_BUCKETS];
+    private Move[] indexedMoves = new Move[256];
+    private Board indexedBoard;
+
+    public Move decode(final Board board, final String token) {
+        //null when the token is no legal move here, SAN and UCI are told apart by their shape
+        return isUci(token) ? decodeUci(board, token) : decodeSan(board, token);
+    }
+
+    public Move decodeUci(final Board board, final String uci) {
+        if (!isUci(uci)) {
+            return null;
+        }
+        index(board);
+        final int from = tile(uci.charAt(0), uci.charAt(1));
+        final int to = tile(uci.charAt(2), uci.charAt(3));
+        final Piece moved = board.getPiece(from);
+        if (moved == null) {
+            return null;
+        }
+        final Piece.PieceType promotionType = uci.length() == 5 ? pieceTypeFor(Character.toUpperCase(uci.charAt(4))) :
+                                              null;
+        final int bucket = bucket(to, moved.getPieceType());
+        for (int i = this.bucketStart[bucket]; i < this.bucketStart[bucket + 1]; i++) {
+            final Move move = this.indexedMoves[i];
+            if (move.getCurrentCoordinate() == from && promotionType(move) == promotionType) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    public Move decodeSan(final Board board, final String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2) {
+            return null;
+        }
+        index(board);
+
+        if (san.startsWith("O-O") || san.startsWith("0-0")) {
+            final boolean queenSide = end >= 5;
+            final int kingTile = board.currentPlayer().getPlayerKing().getPiecePosition();
+            final int to = kingTile + (queenSide ? -2 : 2);
+            return to >= 0 && to < BoardUtils.NUM_TILES ? findCastle(board, to) : null;
+        }
+
+        //promotion: e8=Q or e8Q
+        Piece.PieceType promotionType = null;
+        if (end >= 2 && "QRBN".indexOf(san.charAt(end - 1)) >= 0 && (san.charAt(end - 2) == '=' ||
+            Character.isDigit(san.charAt(end - 2)))) {
+            promotionType = pieceTypeFor(san.charAt(end - 1));
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end < 2) {
+            return null;
+        }
+        final int to = tile(san.charAt(end - 2), san.charAt(end - 1));
+        if (to < 0) {
+            return null;
+        }
+
+        int start = 0;
+        Piece.PieceType pieceType = Piece.PieceType.PAWN;
+        final char first = san.charAt(0);
+        if ("KQRBN".indexOf(first) >= 0) {
+            pieceType = pieceTypeFor(first);
+            start = 1;
+        }
+        //whatever is left between the piece letter and the destination is the disambiguation, apart from the x
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            final char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = 7 - (c - '1');
+            }
+        }
+
+        final int bucket = bucket(to, pieceType);
+        for (int i = this.bucketStart[bucket]; i < this.bucketStart[bucket + 1]; i++) {
+            final Move move = this.indexedMoves[i];
+            final int from = move.getCurrentCoordinate();
+            if ((fromFile >= 0 && from % BoardUtils.NUM_TILES_PER_ROW != fromFile) ||
+                (fromRank >= 0 && from / BoardUtils.NUM_TILES_PER_ROW != fromRank) ||
+                move.isCastlingMove() || promotionType(move) != promotionType) {
+                continue;
+            }
+            //SAN leaves out a disambiguation that only a pinned piece would need, the pinned one is not in the list
+            return move;
+        }
+        return null;
+    }
+
+    public static String toUci(final Move move) {
+        //the other way round, long algebraic notation as UCI writes it, 0000 for the null move
+        if (move == null || move == Move.NULL_MOVE) {
+            return "0000";
+        }
+        final String text = BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate()) +
+                            BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate());
+        if (move instanceof Move.PawnPromotion) {
+            return text + ((Move.PawnPromotion) move).getPromotionType().toString().toLowerCase();
+        }
+        return text;
+    }
+
+    private Move findCastle(final Board board, final int kingDestination) {
+        final int bucket = bucket(kingDestination, Piece.PieceType.KING);
+        for (int i = this.bucketStart[bucket]; i < this.bucketStart[bucket + 1]; i++) {
+            final Move move = this.indexedMoves[i];
+            if (move.isCastlingMove()) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    private void index(final Board board) {
+        /*a counting sort of the legal moves into their buckets, done once per position and reusing the same arrays*/
+        if (board == this.indexedBoard) {
+            return;
+        }
+        final int[] starts = this.bucketStart;
+        java.util.Arrays.fill(starts, 0);
+        int count = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            starts[bucket(move) + 1]++;
+            count++;
+        }
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            starts[i + 1] += starts[i];
+        }
+        if (this.indexedMoves.length < count) {
+            this.indexedMoves = new Move[count];
+        }
+        System.arraycopy(starts, 0, this.bucketFill, 0, NUM_BUCKETS);
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            this.indexedMoves[this.bucketFill[bucket(move)]++] = move;
+        }
+        this.indexedBoard = board;
+    }
+
+    private static Piece.PieceType promotionType(final Move move) {
+        //null for every move that is not a promotion, like a token without a promotion letter
+        return move instanceof Move.PawnPromotion ? ((Move.PawnPromotion) move).getPromotionType() : null;
+    }
+
+    private static int bucket(final Move move) {
+        return bucket(move.getDestinationCoordinate(), move.getMovedPiece().getPieceType());
+    }
+
+    private static int bucket(final int tile, final Piece.PieceType pieceType) {
+        return tile * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    private static boolean isUci(final String token) {
+        final int length = token.length();
+        return (length == 4 || length == 5) && tile(token.charAt(0), token.charAt(1)) >= 0 &&
+               tile(token.charAt(2), token.charAt(3)) >= 0 &&
+               (length == 4 || "qrbn".indexOf(token.charAt(4)) >= 0);
+    }
+
+    private static int tile(final char file, final char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return (7 - (rank - '1')) * BoardUtils.NUM_TILES_PER_ROW + (file - 'a');
+    }
+
+    private static Piece.PieceType pieceTypeFor(final char letter) {
+        switch (letter) {
+            case 'K': return Piece.PieceType.KING;
+            case 'Q': return Piece.PieceType.QUEEN;
+            case 'R': return Piece.PieceType.ROOK;
+            case 'B': return Piece.PieceType.BISHOP;
+            default:  return Piece.PieceType.KNIGHT;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+public final class PieceSquareTables {/*the static worth of a piece on a tile: its material value plus a bonus or penalty
+    for the tile, from white's side so black's pieces count negative. The tables are written the way the board is
+    numbered, a8 first, as white sees them and black's are the same tables flipped top to bottom.
+    Like the Zobrist key the sum over all pieces is kept up to date by the moves, a move takes out what left and adds
+    what arrived, so a board knows its score without looking at its pieces*/
+
+    private static final int[] PAWN_TABLE = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] ROOK_TABLE = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0};
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20};
+    private static final int[] KING_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20};
+
+    private static final int NUM_PIECE_INDICES = 2 * Piece.PieceType.values().length;
+    private static final int[] SCORES = initScores(); //piece index * 64 + tile, the same piece index as the bitboards
+
+    private PieceSquareTables() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    private static int[] initScores() {
+        final int[] scores = new int[NUM_PIECE_INDICES * BoardUtils.NUM_TILES];
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            final int[] table = tableFor(pieceType);
+            for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                final int whiteScore = pieceType.getPieceValue() + table[tile];
+                //black's tile seen from white's side is the same file on the mirrored rank
+                final int blackScore = pieceType.getPieceValue() + table[tile ^ 56];
+                scores[BitBoards.pieceIndex(Alliance.WHITE, pieceType) * BoardUtils.NUM_TILES + tile] = whiteScore;
+                scores[BitBoards.pieceIndex(Alliance.BLACK, pieceType) * BoardUtils.NUM_TILES + tile] = -blackScore;
+            }
+        }
+        return scores;
+    }
+
+    private static int[] tableFor(final Piece.PieceType pieceType) {
+        switch (pieceType) {
+            case PAWN:   return PAWN_TABLE;
+            case KNIGHT: return KNIGHT_TABLE;
+            case BISHOP: return BISHOP_TABLE;
+            case ROOK:   return ROOK_TABLE;
+            case QUEEN:  return QUEEN_TABLE;
+            default:     return KING_TABLE;
+        }
+    }
+
+    public static int score(final int pieceIndex, final int tileCoordinate) {
+        return SCORES[pieceIndex * BoardUtils.NUM_TILES + tileCoordinate];
+    }
+
+    public static int score(final Alliance alliance, final Piece.PieceType pieceType, final int tileCoordinate) {
+        return score(BitBoards.pieceIndex(alliance, pieceType), tileCoordinate);
+    }
+
+    public static int score(final Piece piece) {
+        return score(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+    }
+
+    public static int calculateScore(final Board board) {
+        //the score summed from scratch, incremental updates in Move must always arrive at this same value
+        int score = 0;
+        for (final Piece piece : board.getWhitePieces()) {
+            score += score(piece);
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            score += score(piece);
+        }
+        return score;
+    }
+
+    public static int calculateScore(final SearchBoard board) {
+        //the same from scratch sum for the search board, which keeps its own running score in make and unmake
+        int score = 0;
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final int piece = board.getPieceCode(tile);
+            if (piece != SearchBoard.EMPTY) {
+                score += score(piece, tile);
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,88 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+public final class PositionHistory {/*the Zobrist keys of every position a game went through, oldest first and the
+    current position last. The game pushes a key after every move and pops it when a move is taken back. A search never
+    writes to it, its SearchBoard looks back through the history past the root, so repetitions of the game count inside
+    the search tree the same as repetitions within the tree itself.
+
+    Every game keeps a history of its own and hands it, or a copy of it, to the strategy with the board to move from,
+    so any number of games and searches can run side by side in one process. A history is not thread safe, the game
+    must not push while a search still reads it*/
+
+    private long[] keys;
+    private int size;
+
+    public PositionHistory() {
+        this.keys = new long[128];
+    }
+
+    public PositionHistory(final Board board) {
+        this();
+        push(board);
+    }
+
+    public PositionHistory(final PositionHistory history) {
+        this.keys = Arrays.copyOf(history.keys, history.keys.length);
+        this.size = history.size;
+    }
+
+    public void push(final Board board) {
+        push(board.getZobristKey());
+    }
+
+    public void push(final long key) {
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.keys.length * 2);
+        }
+        this.keys[this.size++] = key;
+    }
+
+    public long pop() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Position history is empty");
+        }
+        return this.keys[--this.size];
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public long get(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("No position " + index + " in a history of " + this.size);
+        }
+        return this.keys[index];
+    }
+
+    public long getLast() {
+        return get(this.size - 1);
+    }
+
+    public int count(final long key) {
+        //a scan instead of a map, a game has a few hundred positions at most and this never boxes a key
+        int count = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.keys[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isThreefold() {
+        //the current position has occurred three times, the game is drawn
+        return this.size > 0 && count(this.keys[this.size - 1]) >= 3;
+    }
+
+    public boolean wouldBeThreefold(final long key) {
+        //reaching the position with this key next would draw the game
+        return count(key) + 1 >= 3;
+    }
+}
@@ -0,0 +1,551 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.*;
+
+public final class SearchBoard {/*a mutable board for the search, moves are made and unmade in place on an undo stack
+    so visiting a node costs no allocation. The immutable Board stays the representation used by the GUI and the move log*/
+
+    //piece types use the same numbering as Piece.PieceType, a piece code is alliance * 6 + piece type
+    public static final int BISHOP = 0;
+    public static final int KING = 1;
+    public static final int KNIGHT = 2;
+    public static final int PAWN = 3;
+    public static final int QUEEN = 4;
+    public static final int ROOK = 5;
+    public static final int NUM_PIECE_TYPES = 6;
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+    public static final int EMPTY = -1;
+
+    public static final int MAX_PLY = 256;
+    public static final int MAX_MOVES = 256; //no legal chess position has more than 218 moves
+
+    private final long[] bitboards = new long[2 * NUM_PIECE_TYPES];
+    private final long[] occupancy = new long[2];
+    private final int[] squares = new int[BoardUtils.NUM_TILES];
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare; //the tile a pawn capturing en passant lands on, or -1
+    private int halfMoveClock;
+    private int ply;
+    private long zobristKey;
+    private int pieceSquareScore; //kept by the piece updates, which make and unmake undo exactly, so no stack needed
+    private long pawnKey; //the same, only the pawns' part of the Zobrist key
+
+    //the undo stack, one entry per move that has been made and not unmade yet
+    private final int[] moveStack = new int[MAX_PLY];
+    private final int[] capturedStack = new int[MAX_PLY];
+    private final int[] castlingStack = new int[MAX_PLY];
+    private final int[] enPassantStack = new int[MAX_PLY];
+    private final int[] halfMoveStack = new int[MAX_PLY];
+    private final long[] keyStack = new long[MAX_PLY];
+
+    private final int[] scratchMoves = new int[MAX_MOVES];
+
+    //the game before the root, read only, position i plies before the root is history[historyRoot - i]
+    private final PositionHistory history;
+    private final int historyRoot;
+
+    public SearchBoard(final Board board) {
+        this(board, null);
+    }
+
+    public SearchBoard(final Board board, final PositionHistory history) {
+        java.util.Arrays.fill(this.squares, EMPTY);
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = board.getPiece(i);
+            if (piece != null) {
+                addPiece(i, pieceCode(piece.getPieceAlliance().ordinal(), piece.getPieceType().ordinal()));
+            }
+        }
+        this.sideToMove = board.currentPlayer().getAlliance().ordinal();
+        this.castlingRights = board.getCastlingRights();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantSquare = enPassantPawn != null && enPassantPawn.getPieceAlliance().ordinal() != this.sideToMove ?
+                enPassantPawn.getPiecePosition() - (enPassantPawn.getPieceAlliance().getDirection() * 8) : -1;
+        this.halfMoveClock = board.getHalfMoveClock();
+        this.ply = 0;
+        this.zobristKey = board.getZobristKey();
+        this.history = history;
+        //the history may or may not end with the root itself
+        this.historyRoot = history == null ? 0 :
+                history.size() > 0 && history.getLast() == this.zobristKey ? history.size() - 1 : history.size();
+    }
+
+    public static int pieceCode(final int side, final int pieceType) {
+        return side * NUM_PIECE_TYPES + pieceType;
+    }
+
+    public static int pieceType(final int pieceCode) {
+        return pieceCode % NUM_PIECE_TYPES;
+    }
+
+    public static int pieceSide(final int pieceCode) {
+        return pieceCode / NUM_PIECE_TYPES;
+    }
+
+    public int getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public Alliance getAllianceToMove() {
+        return this.sideToMove == WHITE ? Alliance.WHITE : Alliance.BLACK;
+    }
+
+    public int getPieceCode(final int square) {
+        return this.squares[square];
+    }
+
+    public long getBitboard(final int side, final int pieceType) {
+        return this.bitboards[pieceCode(side, pieceType)];
+    }
+
+    public long getOccupancy(final int side) {
+        return this.occupancy[side];
+    }
+
+    public long getOccupancy() {
+        return this.occupancy[WHITE] | this.occupancy[BLACK];
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    public int getHalfMoveClock() {
+        return this.halfMoveClock;
+    }
+
+    public int getPly() {
+        return this.ply;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    public int getPieceSquareScore() {
+        return this.pieceSquareScore;
+    }
+
+    public int getKingSquare(final int side) {
+        return Long.numberOfTrailingZeros(this.bitboards[pieceCode(side, KING)]);
+    }
+
+    private void addPiece(final int square, final int piece) {
+        final long mask = BitBoards.SQUARE_MASKS[square];
+        this.squares[square] = piece;
+        this.bitboards[piece] |= mask;
+        this.occupancy[pieceSide(piece)] |= mask;
+        this.zobristKey ^= Zobrist.pieceKey(piece, square);
+        this.pieceSquareScore += PieceSquareTables.score(piece, square);
+        if (pieceType(piece) == PAWN) {
+            this.pawnKey ^= Zobrist.pieceKey(piece, square);
+        }
+    }
+
+    private void removePiece(final int square) {
+        final int piece = this.squares[square];
+        final long mask = BitBoards.SQUARE_MASKS[square];
+        this.squares[square] = EMPTY;
+        this.bitboards[piece] &= ~mask;
+        this.occupancy[pieceSide(piece)] &= ~mask;
+        this.zobristKey ^= Zobrist.pieceKey(piece, square);
+        this.pieceSquareScore -= PieceSquareTables.score(piece, square);
+        if (pieceType(piece) == PAWN) {
+            this.pawnKey ^= Zobrist.pieceKey(piece, square);
+        }
+    }
+
+    private void movePiece(final int from, final int to) {
+        final int piece = this.squares[from];
+        final long mask = BitBoards.SQUARE_MASKS[from] | BitBoards.SQUARE_MASKS[to];
+        this.squares[from] = EMPTY;
+        this.squares[to] = piece;
+        this.bitboards[piece] ^= mask;
+        this.occupancy[pieceSide(piece)] ^= mask;
+        this.zobristKey ^= Zobrist.pieceKey(piece, from) ^ Zobrist.pieceKey(piece, to);
+        this.pieceSquareScore += PieceSquareTables.score(piece, to) - PieceSquareTables.score(piece, from);
+        if (pieceType(piece) == PAWN) {
+            this.pawnKey ^= Zobrist.pieceKey(piece, from) ^ Zobrist.pieceKey(piece, to);
+        }
+    }
+
+    public boolean isSquareAttacked(final int square, final int bySide) {
+        /*looks outwards from the square with each piece's own attack pattern, if that pattern hits an enemy piece of the
+        same kind then that piece attacks the square*/
+        final long occupied = getOccupancy();
+        if ((BitBoards.PAWN_ATTACKS[bySide ^ 1][square] & this.bitboards[pieceCode(bySide, PAWN)]) != 0) {
+            return true;
+        }
+        if ((BitBoards.KNIGHT_ATTACKS[square] & this.bitboards[pieceCode(bySide, KNIGHT)]) != 0) {
+            return true;
+        }
+        if ((BitBoards.KING_ATTACKS[square] & this.bitboards[pieceCode(bySide, KING)]) != 0) {
+            return true;
+        }
+        final long queens = this.bitboards[pieceCode(bySide, QUEEN)];
+        if ((BitBoards.bishopAttacks(square, occupied) & (this.bitboards[pieceCode(bySide, BISHOP)] | queens)) != 0) {
+            return true;
+        }
+        return (BitBoards.rookAttacks(square, occupied) & (this.bitboards[pieceCode(bySide, ROOK)] | queens)) != 0;
+    }
+
+    public boolean isInCheck() {
+        return isSquareAttacked(getKingSquare(this.sideToMove), this.sideToMove ^ 1);
+    }
+
+    public int generateMoves(final int[] moves, final int startIndex) {
+        //pseudo legal moves for the side to move, makeMove rejects the ones that leave the king in check
+        return generateMoves(this.sideToMove, moves, startIndex);
+    }
+
+    private int generateMoves(final int side, final int[] moves, final int startIndex) {
+        int index = startIndex;
+        final long own = this.occupancy[side];
+        final long enemy = this.occupancy[side ^ 1];
+        final long occupied = own | enemy;
+
+        index = generatePawnMoves(side, enemy, occupied, moves, index);
+
+        long knights = this.bitboards[pieceCode(side, KNIGHT)];
+        while (knights != 0) {
+            final int from = Long.numberOfTrailingZeros(knights);
+            index = addMoves(from, BitBoards.KNIGHT_ATTACKS[from] & ~own, enemy, moves, index);
+            knights &= knights - 1;
+        }
+        long bishops = this.bitboards[pieceCode(side, BISHOP)];
+        while (bishops != 0) {
+            final int from = Long.numberOfTrailingZeros(bishops);
+            index = addMoves(from, BitBoards.bishopAttacks(from, occupied) & ~own, enemy, moves, index);
+            bishops &= bishops - 1;
+        }
+        long rooks = this.bitboards[pieceCode(side, ROOK)];
+        while (rooks != 0) {
+            final int from = Long.numberOfTrailingZeros(rooks);
+            index = addMoves(from, BitBoards.rookAttacks(from, occupied) & ~own, enemy, moves, index);
+            rooks &= rooks - 1;
+        }
+        long queens = this.bitboards[pieceCode(side, QUEEN)];
+        while (queens != 0) {
+            final int from = Long.numberOfTrailingZeros(queens);
+            index = addMoves(from, BitBoards.queenAttacks(from, occupied) & ~own, enemy, moves, index);
+            queens &= queens - 1;
+        }
+        final int king = getKingSquare(side);
+        index = addMoves(king, BitBoards.KING_ATTACKS[king] & ~own, enemy, moves, index);
+        return generateCastles(side, occupied, moves, index);
+    }
+
+    public int generateCaptures(final int[] moves, final int startIndex) {
+        /*only the moves that change the material balance: captures, en passant and queen promotions, the moves the
+        quiescence search still has to look at once the normal search depth is used up*/
+        final int side = this.sideToMove;
+        int index = startIndex;
+        final long enemy = this.occupancy[side ^ 1];
+        final long occupied = getOccupancy();
+
+        final int forward = side == WHITE ? -8 : 8;
+        final long promotionRank = BitBoards.RANK_MASKS[side == WHITE ? 0 : 7];
+        long pawns = this.bitboards[pieceCode(side, PAWN)];
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            final int to = from + forward;
+            if (BitBoards.isSet(promotionRank, to) && !BitBoards.isSet(occupied, to)) {
+                moves[index++] = SearchMove.createPromotion(from, to, SearchMove.PROMOTION, QUEEN);
+            }
+            final long attacks = BitBoards.PAWN_ATTACKS[side][from];
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                final int target = Long.numberOfTrailingZeros(captures);
+                moves[index++] = BitBoards.isSet(promotionRank, target) ?
+                        SearchMove.createPromotion(from, target, SearchMove.PROMOTION_CAPTURE, QUEEN) :
+                        SearchMove.create(from, target, SearchMove.CAPTURE);
+                captures &= captures - 1;
+            }
+            if (this.enPassantSquare >= 0 && BitBoards.isSet(attacks, this.enPassantSquare)) {
+                moves[index++] = SearchMove.create(from, this.enPassantSquare, SearchMove.EN_PASSANT);
+            }
+            pawns &= pawns - 1;
+        }
+        long knights = this.bitboards[pieceCode(side, KNIGHT)];
+        while (knights != 0) {
+            final int from = Long.numberOfTrailingZeros(knights);
+            index = addMoves(from, BitBoards.KNIGHT_ATTACKS[from] & enemy, enemy, moves, index);
+            knights &= knights - 1;
+        }
+        long bishops = this.bitboards[pieceCode(side, BISHOP)] | this.bitboards[pieceCode(side, QUEEN)];
+        while (bishops != 0) {
+            final int from = Long.numberOfTrailingZeros(bishops);
+            index = addMoves(from, BitBoards.bishopAttacks(from, occupied) & enemy, enemy, moves, index);
+            bishops &= bishops - 1;
+        }
+        long rooks = this.bitboards[pieceCode(side, ROOK)] | this.bitboards[pieceCode(side, QUEEN)];
+        while (rooks != 0) {
+            final int from = Long.numberOfTrailingZeros(rooks);
+            index = addMoves(from, BitBoards.rookAttacks(from, occupied) & enemy, enemy, moves, index);
+            rooks &= rooks - 1;
+        }
+        final int king = getKingSquare(side);
+        return addMoves(king, BitBoards.KING_ATTACKS[king] & enemy, enemy, moves, index);
+    }
+
+    private static int addMoves(final int from, long destinations, final long enemy, final int[] moves, int index) {
+        while (destinations != 0) {
+            final int to = Long.numberOfTrailingZeros(destinations);
+            moves[index++] = SearchMove.create(from, to, BitBoards.isSet(enemy, to) ? SearchMove.CAPTURE : SearchMove.QUIET);
+            destinations &= destinations - 1;
+        }
+        return index;
+    }
+
+    private int generatePawnMoves(final int side, final long enemy, final long occupied, final int[] moves, int index) {
+        final int forward = side == WHITE ? -8 : 8;
+        final long startRank = BitBoards.RANK_MASKS[side == WHITE ? 6 : 1];
+        final long promotionRank = BitBoards.RANK_MASKS[side == WHITE ? 0 : 7];
+        long pawns = this.bitboards[pieceCode(side, PAWN)];
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            final int to = from + forward;
+            if (!BitBoards.isSet(occupied, to)) {
+                if (BitBoards.isSet(promotionRank, to)) {
+                    index = addPromotions(from, to, SearchMove.PROMOTION, moves, index);
+                } else {
+                    moves[index++] = SearchMove.create(from, to, SearchMove.QUIET);
+                    if (BitBoards.isSet(startRank, from) && !BitBoards.isSet(occupied, to + forward)) {
+                        moves[index++] = SearchMove.create(from, to + forward, SearchMove.DOUBLE_PAWN_PUSH);
+                    }
+                }
+            }
+            final long attacks = BitBoards.PAWN_ATTACKS[side][from];
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                final int target = Long.numberOfTrailingZeros(captures);
+                if (BitBoards.isSet(promotionRank, target)) {
+                    index = addPromotions(from, target, SearchMove.PROMOTION_CAPTURE, moves, index);
+                } else {
+                    moves[index++] = SearchMove.create(from, target, SearchMove.CAPTURE);
+                }
+                captures &= captures - 1;
+            }
+            if (this.enPassantSquare >= 0 && BitBoards.isSet(attacks, this.enPassantSquare)) {
+                moves[index++] = SearchMove.create(from, this.enPassantSquare, SearchMove.EN_PASSANT);
+            }
+            pawns &= pawns - 1;
+        }
+        return index;
+    }
+
+    private static int addPromotions(final int from, final int to, final int flags, final int[] moves, int index) {
+        moves[index++] = SearchMove.createPromotion(from, to, flags, QUEEN);
+        moves[index++] = SearchMove.createPromotion(from, to, flags, KNIGHT);
+        moves[index++] = SearchMove.createPromotion(from, to, flags, ROOK);
+        moves[index++] = SearchMove.createPromotion(from, to, flags, BISHOP);
+        return index;
+    }
+
+    private int generateCastles(final int side, final long occupied, final int[] moves, int index) {
+        /*the tiles between king and rook must be empty and the king may not be in check or pass through an attacked
+        tile, landing on an attacked tile is caught by makeMove like any other move into check*/
+        final int enemy = side ^ 1;
+        if (side == WHITE) {
+            if ((this.castlingRights & BoardUtils.WHITE_KING_SIDE) != 0 && (occupied & (BitBoards.SQUARE_MASKS[61] |
+                BitBoards.SQUARE_MASKS[62])) == 0 && !isSquareAttacked(60, enemy) && !isSquareAttacked(61, enemy)) {
+                moves[index++] = SearchMove.create(60, 62, SearchMove.KING_CASTLE);
+            }
+            if ((this.castlingRights & BoardUtils.WHITE_QUEEN_SIDE) != 0 && (occupied & (BitBoards.SQUARE_MASKS[57] |
+                BitBoards.SQUARE_MASKS[58] | BitBoards.SQUARE_MASKS[59])) == 0 && !isSquareAttacked(60, enemy) &&
+                !isSquareAttacked(59, enemy)) {
+                moves[index++] = SearchMove.create(60, 58, SearchMove.QUEEN_CASTLE);
+            }
+        } else {
+            if ((this.castlingRights & BoardUtils.BLACK_KING_SIDE) != 0 && (occupied & (BitBoards.SQUARE_MASKS[5] |
+                BitBoards.SQUARE_MASKS[6])) == 0 && !isSquareAttacked(4, enemy) && !isSquareAttacked(5, enemy)) {
+                moves[index++] = SearchMove.create(4, 6, SearchMove.KING_CASTLE);
+            }
+            if ((this.castlingRights & BoardUtils.BLACK_QUEEN_SIDE) != 0 && (occupied & (BitBoards.SQUARE_MASKS[1] |
+                BitBoards.SQUARE_MASKS[2] | BitBoards.SQUARE_MASKS[3])) == 0 && !isSquareAttacked(4, enemy) &&
+                !isSquareAttacked(3, enemy)) {
+                moves[index++] = SearchMove.create(4, 2, SearchMove.QUEEN_CASTLE);
+            }
+        }
+        return index;
+    }
+
+    public boolean makeMove(final int move) {
+        /*plays the move and pushes what is needed to take it back, if it leaves the mover's own king in check it is
+        taken back straight away and false is returned*/
+        final int mover = this.sideToMove;
+        doMove(move);
+        if (isSquareAttacked(getKingSquare(mover), this.sideToMove)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    private void doMove(final int move) {
+        final int from = SearchMove.from(move);
+        final int to = SearchMove.to(move);
+        final int flags = SearchMove.flags(move);
+        final int piece = this.squares[from];
+        int captured = EMPTY;
+
+        this.moveStack[this.ply] = move;
+        this.castlingStack[this.ply] = this.castlingRights;
+        this.enPassantStack[this.ply] = this.enPassantSquare;
+        this.halfMoveStack[this.ply] = this.halfMoveClock;
+        this.keyStack[this.ply] = this.zobristKey;
+
+        if (flags == SearchMove.EN_PASSANT) {
+            final int capturedSquare = to - (this.sideToMove == WHITE ? -8 : 8); //the pawn sits behind the landing tile
+            captured = this.squares[capturedSquare];
+            removePiece(capturedSquare);
+        } else if ((flags & SearchMove.CAPTURE) != 0) {
+            captured = this.squares[to];
+            removePiece(to);
+        }
+        movePiece(from, to);
+        if ((flags & SearchMove.PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(to, pieceCode(this.sideToMove, SearchMove.promotionType(move)));
+        } else if (flags == SearchMove.KING_CASTLE) {
+            movePiece(to + 1, to - 1);
+        } else if (flags == SearchMove.QUEEN_CASTLE) {
+            movePiece(to - 2, to + 1);
+        }
+        this.capturedStack[this.ply] = captured;
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.enPassantKey(this.enPassantSquare);
+        this.castlingRights &= BoardUtils.CASTLING_MASKS[from] & BoardUtils.CASTLING_MASKS[to];
+        this.enPassantSquare = flags == SearchMove.DOUBLE_PAWN_PUSH ? (from + to) / 2 : -1;
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.enPassantKey(this.enPassantSquare) ^
+                           Zobrist.SIDE_KEY;
+        this.halfMoveClock = pieceType(piece) == PAWN || captured != EMPTY ? 0 : this.halfMoveClock + 1;
+        this.sideToMove ^= 1;
+        this.ply++;
+    }
+
+    public void unmakeMove() {
+        this.ply--;
+        this.sideToMove ^= 1;
+        final int move = this.moveStack[this.ply];
+        final int from = SearchMove.from(move);
+        final int to = SearchMove.to(move);
+        final int flags = SearchMove.flags(move);
+
+        if ((flags & SearchMove.PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(to, pieceCode(this.sideToMove, PAWN));
+        } else if (flags == SearchMove.KING_CASTLE) {
+            movePiece(to - 1, to + 1);
+        } else if (flags == SearchMove.QUEEN_CASTLE) {
+            movePiece(to + 1, to - 2);
+        }
+        movePiece(to, from);
+        final int captured = this.capturedStack[this.ply];
+        if (flags == SearchMove.EN_PASSANT) {
+            addPiece(to - (this.sideToMove == WHITE ? -8 : 8), captured);
+        } else if (captured != EMPTY) {
+            addPiece(to, captured);
+        }
+        this.castlingRights = this.castlingStack[this.ply];
+        this.enPassantSquare = this.enPassantStack[this.ply];
+        this.halfMoveClock = this.halfMoveStack[this.ply];
+        this.zobristKey = this.keyStack[this.ply]; //the piece updates above toggled the key too, the saved key is exact
+    }
+
+    public boolean hasLegalMove() {
+        final int count = generateMoves(this.scratchMoves, 0);
+        for (int i = 0; i < count; i++) {
+            if (makeMove(this.scratchMoves[i])) {
+                unmakeMove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isCheckMate() {
+        return isInCheck() && !hasLegalMove();
+    }
+
+    public boolean isStaleMate() {
+        return !isInCheck() && !hasLegalMove();
+    }
+
+    public boolean isRepetition() {
+        /*true if the position already occurred since the search started or earlier in the game history, only every
+        second earlier position can match because the same side has to be on move, and nothing before the last
+        capture or pawn move can match at all*/
+        final int oldest = this.ply - this.halfMoveClock;
+        for (int i = this.ply - 2; i >= oldest; i -= 2) {
+            if (i < 0 && this.historyRoot + i < 0) {
+                break; //the history does not reach back that far
+            }
+            final long key = i >= 0 ? this.keyStack[i] : this.history.get(this.historyRoot + i);
+            if (key == this.zobristKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Board toBoard() {
+        //takes a snapshot of the current position as an immutable board
+        final Board.Builder builder = new Board.Builder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            if (this.squares[i] != EMPTY) {
+                builder.setPiece(createPiece(i, this.squares[i]));
+            }
+        }
+        if (this.enPassantSquare >= 0) {
+            final int pawnSquare = this.enPassantSquare + (this.sideToMove == WHITE ? 8 : -8);
+            builder.setEnPassantPawn((Pawn) builder.boardConfig[pawnSquare]);
+        }
+        builder.setMoveMaker(getAllianceToMove());
+        builder.setHalfMoveClock(this.halfMoveClock);
+        return builder.build();
+    }
+
+    private Piece createPiece(final int square, final int piece) {
+        final Alliance alliance = pieceSide(piece) == WHITE ? Alliance.WHITE : Alliance.BLACK;
+        switch (pieceType(piece)) {
+            case PAWN:
+                //a pawn may only jump from its starting rank, so the first move flag can follow the rank
+                return new Pawn(alliance, square, BoardUtils.SECOND_RANK[square] && alliance.isWhite() ||
+                        BoardUtils.SEVENTH_RANK[square] && alliance.isBlack());
+            case KNIGHT:
+                return new Knight(alliance, square, false);
+            case BISHOP:
+                return new Bishop(alliance, square, false);
+            case ROOK:
+                return new Rook(alliance, square, hasCastlingRightForRook(square));
+            case QUEEN:
+                return new Queen(alliance, square, false);
+            default:
+                final int rights = alliance.isWhite() ? BoardUtils.WHITE_KING_SIDE | BoardUtils.WHITE_QUEEN_SIDE :
+                                   BoardUtils.BLACK_KING_SIDE | BoardUtils.BLACK_QUEEN_SIDE;
+                return new King(alliance, square, (this.castlingRights & rights) != 0);
+        }
+    }
+
+    private boolean hasCastlingRightForRook(final int square) {
+        switch (square) {
+            case 0: return (this.castlingRights & BoardUtils.BLACK_QUEEN_SIDE) != 0;
+            case 7: return (this.castlingRights & BoardUtils.BLACK_KING_SIDE) != 0;
+            case 56: return (this.castlingRights & BoardUtils.WHITE_QUEEN_SIDE) != 0;
+            case 63: return (this.castlingRights & BoardUtils.WHITE_KING_SIDE) != 0;
+            default: return false;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+public final class SearchMove {/*moves made on a SearchBoard are plain ints so the search never allocates a Move object,
+    bits 0-5 hold the source tile, bits 6-11 the destination tile, bits 12-15 the flags and bits 16-18 the piece type
+    a pawn is promoted to*/
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = PROMOTION | CAPTURE;
+
+    private SearchMove() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static int create(final int from, final int to, final int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int createPromotion(final int from, final int to, final int flags, final int promotionType) {
+        return from | (to << 6) | (flags << 12) | (promotionType << 16);
+    }
+
+    public static int from(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(final int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static int promotionType(final int move) {
+        return (move >>> 16) & 0x7;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(final int move) {
+        final int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static Move toMove(final Board board, final int move) {
+        /*finds the immutable board's Move that matches a search move, the search and the GUI agree on source and
+        destination tiles so those are enough, except for promotions where the promoted piece type has to match too.
+        NONE, the search having no move, is the null move, any other move the board does not have is a bug*/
+        if (move == NONE) {
+            return Move.NULL_MOVE;
+        }
+        for (final Move candidate : board.currentPlayer().getLegalMoves()) {
+            if (candidate.getCurrentCoordinate() != from(move) || candidate.getDestinationCoordinate() != to(move)) {
+                continue;
+            }
+            if (!isPromotion(move) ||
+                ((Move.PawnPromotion) candidate).getPromotionType().ordinal() == promotionType(move)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("search move " + toString(move) + " is not legal in " +
+                                        FenUtils.createFENFromGame(board));
+    }
+
+    public static String toString(final int move) {
+        //long algebraic notation, e.g. e2e4 or e7e8q
+        final String text = BoardUtils.getPositionAtCoordinate(from(move)) + BoardUtils.getPositionAtCoordinate(to(move));
+        if (isPromotion(move)) {
+            return text + Piece.PieceType.values()[promotionType(move)].toString().toLowerCase();
+        }
+        return text;
+    }
+}
@@ -0,0 +1,90 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Random;
+
+public final class Zobrist {/*64 bit position keys, a key is the xor of one random number per piece on its tile, plus
+    numbers for black to move, the castling rights and the file of a pawn that can be taken en passant. Xor undoes
+    itself, so a move updates the key by xor'ing out what left and xor'ing in what arrived*/
+
+    private static final long SEED = 0x5EED_C4E55L; //fixed so keys are the same on every run and can be stored
+    private static final long[][] PIECE_KEYS = new long[12][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    public static final long SIDE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int i = 0; i < pieceKeys.length; i++) {
+                pieceKeys[i] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    public static long pieceKey(final int pieceIndex, final int tileCoordinate) {
+        return PIECE_KEYS[pieceIndex][tileCoordinate];
+    }
+
+    public static long pieceKey(final Alliance alliance, final Piece.PieceType pieceType, final int tileCoordinate) {
+        return PIECE_KEYS[BitBoards.pieceIndex(alliance, pieceType)][tileCoordinate];
+    }
+
+    public static long pieceKey(final Piece piece) {
+        return pieceKey(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    public static long enPassantKey(final int enPassantSquare) {
+        return enPassantSquare < 0 ? 0L : EN_PASSANT_KEYS[enPassantSquare % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    public static long enPassantKey(final Pawn enPassantPawn) {
+        return enPassantPawn == null ? 0L : EN_PASSANT_KEYS[enPassantPawn.getPiecePosition() % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    public static long calculatePawnKey(final Board board) {
+        //only the pawns, so every position with the same pawns on the same tiles shares this key
+        long key = 0L;
+        for (final Alliance alliance : Alliance.values()) {
+            long pawns = board.getPieceBitboard(alliance, Piece.PieceType.PAWN);
+            while (pawns != 0) {
+                key ^= pieceKey(alliance, Piece.PieceType.PAWN, Long.numberOfTrailingZeros(pawns));
+                pawns &= pawns - 1;
+            }
+        }
+        return key;
+    }
+
+    public static long calculateKey(final Board board) {
+        //the key built from scratch, incremental updates in Move must always arrive at this same value
+        long key = 0L;
+        for (final Piece piece : board.getWhitePieces()) {
+            key ^= pieceKey(piece);
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            key ^= pieceKey(piece);
+        }
+        if (board.currentPlayer().getAlliance().isBlack()) {
+            key ^= SIDE_KEY;
+        }
+        return key ^ castlingKey(board.getCastlingRights()) ^ enPassantKey(board.getEnPassantPawn());
+    }
+}
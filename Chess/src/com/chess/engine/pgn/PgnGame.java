@@ -0,0 +1,46 @@
+package com.chess.engine.pgn;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class PgnGame {/*one game as it stands in a PGN file: the tag pairs in file order and the moves as SAN
+    tokens, with move numbers, comments, variations and annotation glyphs already taken out*/
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    PgnGame(final Map<String, String> tags, final List<String> moves, final String result) {
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.moves = Collections.unmodifiableList(moves);
+        this.result = result;
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    public String getTag(final String name) {
+        return this.tags.get(name);
+    }
+
+    public List<String> getMoves() {
+        return this.moves;
+    }
+
+    public String getResult() {
+        //the game termination marker after the moves, the Result tag if the moves had none, * if neither is known
+        if (this.result != null) {
+            return this.result;
+        }
+        return this.tags.getOrDefault("Result", "*");
+    }
+
+    @Override
+    public String toString() {
+        return this.tags.getOrDefault("White", "?") + " - " + this.tags.getOrDefault("Black", "?") + " " +
+               getResult() + " (" + this.moves.size() + " plies)";
+    }
+}
@@ -0,0 +1,265 @@
+package com.chess.engine.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class PgnReader implements Closeable {/*reads a PGN database one game at a time through a fixed size
+    buffer on an NIO channel, so the heap it needs depends on the longest game and not on the size of the file.
+    Tag pairs become the game's tags, the movetext is cut into SAN tokens while move numbers, {comments}, ;comments,
+    (variations), $glyphs and !? suffixes are dropped. A game ends at its result token or where the next game's tags
+    begin.
+
+    Not thread safe, a reader belongs to the thread that calls nextGame*/
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int EOF = -1;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] token = new byte[64]; //grows to the longest token seen, tag values can be long
+    private int tokenLength;
+    private int pushedBack = EOF - 1; //one byte of look-ahead, below EOF means there is none
+
+    private long bytesRead;
+    private long gamesRead;
+
+    public PgnReader(final Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), DEFAULT_BUFFER_SIZE);
+    }
+
+    public PgnReader(final ReadableByteChannel channel, final int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.flip(); //starts empty, the first read fills it
+    }
+
+    public PgnGame nextGame() throws IOException {
+        //null once the file has no more games
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final List<String> moves = new ArrayList<>();
+        String result = null;
+        boolean inMovetext = false;
+
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '[' && !inMovetext) {
+                readTag(tags);
+            } else if (c == '[') {
+                unread(c); //the next game's tags, this one ended without a result
+                break;
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';') {
+                skipUntil('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == '%' && !inMovetext) {
+                skipUntil('\n'); //escape line
+            } else if (!isWhitespace(c) && c != ')') {
+                inMovetext = true;
+                readToken(c);
+                if (isResult()) {
+                    result = tokenString();
+                    break;
+                }
+                if (this.token[0] == '$' || Character.isDigit(this.token[0]) && isMoveNumber()) {
+                    continue;
+                }
+                final String move = moveToken();
+                if (move != null) {
+                    moves.add(move);
+                }
+            }
+        }
+        if (tags.isEmpty() && moves.isEmpty() && result == null) {
+            return null;
+        }
+        this.gamesRead++;
+        return new PgnGame(tags, moves, result);
+    }
+
+    private void readTag(final Map<String, String> tags) throws IOException {
+        //[Name "Value"], a backslash escapes a quote or a backslash inside the value
+        int c = skipWhitespace();
+        this.tokenLength = 0;
+        while (c != EOF && !isWhitespace(c) && c != '"' && c != ']') {
+            append(c);
+            c = read();
+        }
+        final String name = tokenString();
+        while (c != EOF && c != '"' && c != ']') {
+            c = read();
+        }
+        this.tokenLength = 0;
+        if (c == '"') {
+            c = read();
+            while (c != EOF && c != '"') {
+                if (c == '\\') {
+                    c = read();
+                }
+                if (c != EOF) {
+                    append(c);
+                }
+                c = read();
+            }
+        }
+        final String value = new String(this.token, 0, this.tokenLength, StandardCharsets.UTF_8);
+        while (c != EOF && c != ']') {
+            c = read();
+        }
+        if (!name.isEmpty()) {
+            tags.put(name, value);
+        }
+    }
+
+    private void readToken(int c) throws IOException {
+        this.tokenLength = 0;
+        while (c != EOF && !isWhitespace(c) && c != '{' && c != '(' && c != ')' && c != ';' && c != '[') {
+            append(c);
+            c = read();
+            if (c == '.' && this.tokenLength > 0 && Character.isDigit(this.token[0])) {
+                //move numbers may run into their move, "12.Nf3" or "12...Nf6"
+                while (c == '.') {
+                    append(c);
+                    c = read();
+                }
+                break;
+            }
+        }
+        if (c != EOF) {
+            unread(c);
+        }
+    }
+
+    private boolean isMoveNumber() {
+        for (int i = 0; i < this.tokenLength; i++) {
+            final byte b = this.token[i];
+            if (b != '.' && (b < '0' || b > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isResult() {
+        return equalsToken("1-0") || equalsToken("0-1") || equalsToken("1/2-1/2") || equalsToken("*");
+    }
+
+    private boolean equalsToken(final String text) {
+        if (text.length() != this.tokenLength) {
+            return false;
+        }
+        for (int i = 0; i < this.tokenLength; i++) {
+            if (this.token[i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String moveToken() {
+        //drops the !, ?, !!, ?! style suffixes, check and mate markers stay part of the SAN
+        int length = this.tokenLength;
+        while (length > 0 && (this.token[length - 1] == '!' || this.token[length - 1] == '?')) {
+            length--;
+        }
+        return length == 0 ? null : new String(this.token, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private String tokenString() {
+        return new String(this.token, 0, this.tokenLength, StandardCharsets.ISO_8859_1);
+    }
+
+    private void skipVariation() throws IOException {
+        //variations nest and may hold comments with parentheses in them
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) != EOF) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';') {
+                skipUntil('\n');
+            }
+        }
+    }
+
+    private void skipUntil(final int end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && c != end);
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && isWhitespace(c));
+        return c;
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private void append(final int c) {
+        if (this.tokenLength == this.token.length) {
+            this.token = Arrays.copyOf(this.token, this.token.length * 2);
+        }
+        this.token[this.tokenLength++] = (byte) c;
+    }
+
+    private int read() throws IOException {
+        if (this.pushedBack >= EOF) {
+            final int c = this.pushedBack;
+            this.pushedBack = EOF - 1;
+            return c;
+        }
+        if (!this.buffer.hasRemaining()) {
+            this.buffer.clear();
+            int read;
+            do {
+                read = this.channel.read(this.buffer);
+            } while (read == 0);
+            this.buffer.flip();
+            if (read < 0) {
+                return EOF;
+            }
+            this.bytesRead += read;
+        }
+        return this.buffer.get() & 0xFF;
+    }
+
+    private void unread(final int c) {
+        this.pushedBack = c;
+    }
+
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    public long getGamesRead() {
+        return this.gamesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
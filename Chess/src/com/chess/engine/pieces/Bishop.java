@@ -1,21 +1,14 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.AttackMove;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
 
-import java.util.*;
-
-import static com.chess.engine.board.Move.*;
+import java.util.Collection;
 
 public class Bishop extends Piece{
 
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -7, 7, 9 };
-
     public Bishop(final Alliance pieceAlliance, final int piecePosition) {
         super(PieceType.BISHOP ,piecePosition, pieceAlliance, true);
     }
@@ -26,53 +19,18 @@ public class Bishop extends Piece{
 
     @Override
     public Bishop movePiece(Move move) {
-        return new Bishop(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+        return new Bishop(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-        for(final int candidateCoordinateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {/*looping through the vector
-        (diagonal attacking pattern)*/
-            int candidateDestinationCoordinate = this.piecePosition;
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {//while the tile is still on the board
-                if(isFirstColumnException(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                isEighthColumnException(candidateDestinationCoordinate, candidateCoordinateOffset)) { //if these cases, break out
-                    break;
-                }
-                candidateDestinationCoordinate += candidateCoordinateOffset; //add the destination to the offset
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    /*if the tile is valid, get the tiles value from the board class using the coordinate you get after all
-                    the moves have been made with the while loop*/
-                    if (!candidateDestinationTile.isTileOccupied()) { //if the tile is not occupied then use a major move
-                        legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();//the piece at a destination
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();//the piece alliance (color)
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate,
-                                    pieceAtDestination));
-                        }
-                        break; //if the tile is occupied by a piece, you cannot pass the piece and continue moving past it
-                    }
-                }
-            }
-        }
-        return ImmutableList.copyOf(legalMoves);
+        /*the diagonal rays stop at the first occupied tile, that tile is kept so an enemy piece on it
+        becomes an attack move*/
+        return createMoves(board, BitBoards.bishopAttacks(this.piecePosition, board.getOccupancy()));
     }
 
     @Override
     public String toString(){
         return PieceType.BISHOP.toString();
     }
-
-    private static boolean isFirstColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7);
-    }
-
-    private static boolean isEighthColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 9);
-    }
-
 }
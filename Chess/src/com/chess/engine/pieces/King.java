@@ -1,18 +1,14 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
 
 import java.util.Collection;
-import java.util.*;
 
 public class King extends Piece{
 
-    final static int[] CANDIDATE_MOVE_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9 };
     public King(final Alliance pieceAlliance,
                 final int piecePosition) {
         super(PieceType.KING ,piecePosition, pieceAlliance, true);
@@ -24,52 +20,17 @@ public class King extends Piece{
 
     @Override
     public King movePiece(Move move) {
-        return new King(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+        return new King(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for(final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATES){
-            final int candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-
-            if(isFirstColumnException(this.piecePosition, currentCandidateOffset) ||
-              isEighthColumnException(this.piecePosition, currentCandidateOffset)){
-                continue;
-            }
-
-            if(BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)){
-                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate); /* the candidate destination
-                tile is now the time retrieved from the board class at the candidate destination coordinate*/
-                if (!candidateDestinationTile.isTileOccupied()) {//if the tile is valid and the tile is unnoccupied, it's a legal move
-                    legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                } else {
-                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();/*the piece at the current destination
-                    is equal to the destination tile retrieving the get piece function*/
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();//gets the alliance of a piece
-                    if(this.pieceAlliance != pieceAlliance) { //capture of an enemy piece
-                        legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
-                }
-            }
-        }
-
-        return ImmutableList.copyOf(legalMoves);
+        //one step in every direction, the attack table already leaves out the steps that would fall off the board
+        return createMoves(board, BitBoards.KING_ATTACKS[this.piecePosition]);
     }
 
     @Override
     public String toString(){
         return PieceType.KING.toString();
     }
-
-    public static boolean isFirstColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == -1 ||
-                candidateOffset == 7);
-    }
-
-    public static boolean isEighthColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 1 ||
-                candidateOffset == 9);
-    }
 }
@@ -4,7 +4,10 @@ import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public abstract class Piece {
 
@@ -75,6 +78,24 @@ public abstract class Piece {
 
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    protected Collection<Move> createMoves(final Board board, final long attacks) {
+        /*turns a set of attacked tiles into moves, tiles holding our own pieces are dropped, empty tiles become a
+        major move and tiles holding an enemy piece become an attack move*/
+        long candidateDestinations = attacks & ~board.getAllianceOccupancy(this.pieceAlliance);
+        final List<Move> legalMoves = new ArrayList<>(Long.bitCount(candidateDestinations));
+        while (candidateDestinations != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(candidateDestinations);
+            final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
+            if (pieceAtDestination == null) {
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
+            }
+            candidateDestinations &= candidateDestinations - 1; //clears the lowest set bit
+        }
+        return Collections.unmodifiableList(legalMoves);
+    }
+
     public int getPieceValue() {
         return this.pieceType.getPieceValue();
     }
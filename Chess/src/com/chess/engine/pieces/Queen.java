@@ -1,19 +1,14 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class Queen extends Piece{
 
-    final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9 };
     public Queen(final Alliance pieceAlliance, final int piecePosition) {
         super(PieceType.QUEEN, piecePosition, pieceAlliance, true);
     }
@@ -24,51 +19,18 @@ public class Queen extends Piece{
 
     @Override
     public Queen movePiece(Move move) {
-        return new Queen(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+        return new Queen(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
-    public Collection<Move> calculateLegalMoves(Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-        for (final int candidateCoordinateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnException(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                        isEighthColumnException(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break;
-                }
-                candidateDestinationCoordinate += candidateCoordinateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate,
-                                    pieceAtDestination));
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-        return ImmutableList.copyOf(legalMoves);
+    @Override
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        /*the rays in all eight directions stop at the first occupied tile, that tile is kept so an enemy piece on it
+        becomes an attack move*/
+        return createMoves(board, BitBoards.queenAttacks(this.piecePosition, board.getOccupancy()));
     }
 
     @Override
     public String toString(){
         return PieceType.QUEEN.toString();
     }
-
-    public static boolean isFirstColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == -1 ||
-                candidateOffset == 7);
-    }
-
-    public static boolean isEighthColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 1 ||
-                candidateOffset == 9);
-    }
-
 }
@@ -1,19 +1,14 @@
 package com.chess.engine.pieces;
+
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.MajorMove;
-import com.chess.engine.board.Move.AttackMove;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
 
-import java.util.*;
+import java.util.Collection;
 
 public class Rook extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-8, -1, 1, 8};
-
     public Rook(final Alliance pieceAlliance, final int piecePosition) {
         super(PieceType.ROOK, piecePosition, pieceAlliance, true);
     }
@@ -24,49 +19,18 @@ public class Rook extends Piece {
 
     @Override
     public Rook movePiece(Move move) {
-        return new Rook(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+        return new Rook(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
-    public Collection<Move> calculateLegalMoves(Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-        for (final int candidateCoordinateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnException(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                        isEighthColumnException(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break;
-                }
-                candidateDestinationCoordinate += candidateCoordinateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate,
-                                    pieceAtDestination));
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-        return ImmutableList.copyOf(legalMoves);
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        /*the horizontal and vertical rays stop at the first occupied tile, that tile is kept so an enemy piece on it
+        becomes an attack move*/
+        return createMoves(board, BitBoards.rookAttacks(this.piecePosition, board.getOccupancy()));
     }
 
     @Override
     public String toString(){
         return PieceType.ROOK.toString();
     }
-
-    public static boolean isFirstColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -1);
-    }
-
-    public static boolean isEighthColumnException (final int currentPosition, final int candidateOffset){
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == 1);
-    }
 }
@@ -15,11 +15,10 @@ import java.util.List;
 public class BlackPlayer extends Player{
 
     public BlackPlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
                        final Collection<Move> blackStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);/* in the player class it takes in legal moves
-        (your moves) and then the opponents moves. for the black pieces your moves are the black moves and the oppenent
-        is the white moves*/
+        super(board, blackStandardLegalMoves);/* in the player class it takes in legal moves (your moves), for the black
+        pieces your moves are the black moves. The opponent's moves are not needed, the board answers which tiles they
+        attack*/
     }
 
     @Override
@@ -32,13 +31,18 @@ public class BlackPlayer extends Player{
         return Alliance.BLACK;
     }
 
+    @Override
+    protected Alliance getOpponentAlliance() {
+        return Alliance.WHITE;
+    }
+
     @Override
     public Player getOpponent() {
         return this.board.whitePlayer();
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals, final Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
         final List<Move> kingCastles = new ArrayList<>();
         if(this.playerKing.isFirstMove() && !this.isInCheck()) { //if it is the kings first move, and the king is not in check
             //blacks king side castle
@@ -48,8 +52,8 @@ public class BlackPlayer extends Player{
                 can use the isTileOccupied method in the next line to make sure that the tile that a rook should be on in a king
                 side castle is occupied, therefore it will be a legal move*/
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(5, opponentsLegals).isEmpty() &&
-                       Player.calculateAttacksOnTile(6, opponentsLegals).isEmpty() &&
+                    if(!this.board.isSquareAttacked(5, Alliance.WHITE) &&
+                       !this.board.isSquareAttacked(6, Alliance.WHITE) &&
                        rookTile.getPiece().getPieceType().isRook()){
                         //TODO add a castle move
                         kingCastles.add(new Move.KingSideCastleMove(this.board,
@@ -67,8 +71,8 @@ public class BlackPlayer extends Player{
                !this.board.getTile(3).isTileOccupied()){
                 final Tile rookTile = this.board.getTile(0);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(2, opponentsLegals).isEmpty() &&
-                       Player.calculateAttacksOnTile(3, opponentsLegals).isEmpty() &&
+                    if(!this.board.isSquareAttacked(2, Alliance.WHITE) &&
+                       !this.board.isSquareAttacked(3, Alliance.WHITE) &&
                        rookTile.getPiece().getPieceType().isRook()){
                         //TODO add a castle move
                         kingCastles.add(new Move.QueenSideCastleMove(this.board,
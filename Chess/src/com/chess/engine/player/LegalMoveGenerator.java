@@ -0,0 +1,106 @@
+package com.chess.engine.player;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Piece;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Collection;
+
+final class LegalMoveGenerator {/*turns the moves the pieces come up with into the legal ones without playing any of
+    them. Before looking at a single move it works out which enemy pieces give check and which of the player's own
+    pieces are pinned to the king, after that every move is decided with a few bitboard tests:
+        a king move is legal if its destination is not attacked once the king has left its tile, so a slider checking
+        along a line also covers the tile behind the king
+        in double check only the king may move
+        in single check any other move has to capture the checker or step between it and the king
+        a pinned piece may only move along the line through the king and itself
+    En passant is the one move that takes two pieces off a rank at once, it is decided by asking whether the king is
+    attacked on the board as it would be after the capture*/
+
+    private final Board board;
+    private final Alliance opponent;
+    private final int kingTile;
+    private final long checkers;
+    private final long checkMask; //the tiles a non-king move has to land on, everything when not in check
+    private final long pinned;
+
+    LegalMoveGenerator(final Board board, final King king, final Alliance opponent) {
+        this.board = board;
+        this.opponent = opponent;
+        this.kingTile = king.getPiecePosition();
+        final long occupancy = board.getOccupancy();
+        this.checkers = board.getAttackers(this.kingTile, opponent, occupancy);
+        this.checkMask = this.checkers == 0 ? ~0L :
+                         this.checkers | BitBoards.between(this.kingTile, Long.numberOfTrailingZeros(this.checkers));
+        this.pinned = calculatePinnedPieces(board, king.getPieceAlliance(), opponent, this.kingTile);
+    }
+
+    private static long calculatePinnedPieces(final Board board,
+                                              final Alliance alliance,
+                                              final Alliance opponent,
+                                              final int kingTile) {
+        /*looks from the king through its own pieces to the enemy sliders lined up on it, a slider with exactly one of
+        the player's pieces between itself and the king pins that piece*/
+        final long enemies = board.getAllianceOccupancy(opponent);
+        final long queens = board.getPieceBitboard(opponent, Piece.PieceType.QUEEN);
+        long snipers = (BitBoards.rookAttacks(kingTile, enemies) &
+                        (board.getPieceBitboard(opponent, Piece.PieceType.ROOK) | queens)) |
+                       (BitBoards.bishopAttacks(kingTile, enemies) &
+                        (board.getPieceBitboard(opponent, Piece.PieceType.BISHOP) | queens));
+        final long own = board.getAllianceOccupancy(alliance);
+        long pinned = 0L;
+        while (snipers != 0) {
+            final long blockers = BitBoards.between(kingTile, Long.numberOfTrailingZeros(snipers)) & own;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers;
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    Collection<Move> generate(final Collection<Move> candidates) {
+        final ImmutableList.Builder<Move> legalMoves = ImmutableList.builder();
+        for (final Move move : candidates) {
+            if (isLegal(move)) {
+                legalMoves.add(move);
+            }
+        }
+        return legalMoves.build();
+    }
+
+    boolean isInCheck() {
+        return this.checkers != 0;
+    }
+
+    private boolean isLegal(final Move move) {
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        if (from == this.kingTile) {
+            return this.board.getAttackers(to, this.opponent,
+                    this.board.getOccupancy() ^ BitBoards.SQUARE_MASKS[from]) == 0;
+        }
+        if (Long.bitCount(this.checkers) > 1) {
+            return false;
+        }
+        if (move instanceof Move.PawnEnPassantAttackMove) {
+            return isLegalEnPassant(from, to, move.getAttackedPiece().getPiecePosition());
+        }
+        if ((this.checkMask & BitBoards.SQUARE_MASKS[to]) == 0) {
+            return false;
+        }
+        return (this.pinned & BitBoards.SQUARE_MASKS[from]) == 0 ||
+               (BitBoards.line(this.kingTile, from) & BitBoards.SQUARE_MASKS[to]) != 0;
+    }
+
+    private boolean isLegalEnPassant(final int from, final int to, final int capturedTile) {
+        final long captured = BitBoards.SQUARE_MASKS[capturedTile];
+        final long occupancy = this.board.getOccupancy() ^ BitBoards.SQUARE_MASKS[from] ^ BitBoards.SQUARE_MASKS[to] ^
+                               captured;
+        return (this.board.getAttackers(this.kingTile, this.opponent, occupancy) & ~captured) == 0;
+    }
+}
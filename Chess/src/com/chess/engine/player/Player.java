@@ -15,30 +15,23 @@ public abstract class Player {
     protected final Board board;
     protected final King playerKing;
     protected final Collection<Move> legalMoves;
+    private final Collection<Move> candidateMoves; //what the pieces came up with, before the illegal moves were dropped
     private final boolean isInCheck;
 
     Player(final Board board,
-           final Collection<Move> legalMoves,
-           final Collection<Move> opponentMoves){
+           final Collection<Move> legalMoves){
         this.board = board;
         this.playerKing = establishKing();
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(legalMoves, calculateKingCastles(legalMoves, opponentMoves)));
-        //concatenates the list of legal moves with the list of castle moves made by the king, also taking into account opponentMoves
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
-        /*uses the method that takes in a piece's position and the moves an opponent can make, if this list is not empty
-        there exists a legal move that attacks the king making him in check*/
-    }
-
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for(final Move move: moves){ /*goes through the enemy moves, and if there exists a legal move that the enemy can make
-            that ends up on the same tile as the piece position this is considered an attacking move, and then adds that
-            move to the list*/
-            if(piecePosition == move.getDestinationCoordinate()){
-                attackMoves.add(move);
-            }
-        }
-        return ImmutableList.copyOf(attackMoves);
+        final LegalMoveGenerator generator = new LegalMoveGenerator(board, this.playerKing, getOpponentAlliance());
+        this.isInCheck = generator.isInCheck();
+        /*the generator asks the board which enemy pieces attack the king's tile, which only looks along the lines a
+        piece could attack from instead of going through every move the opponent has. It is set before the castles are
+        worked out since a king in check may not castle*/
+        this.candidateMoves = legalMoves;
+        this.legalMoves = ImmutableList.copyOf(Iterables.concat(generator.generate(legalMoves),
+                                                                calculateKingCastles(legalMoves)));
+        /*concatenates the moves that keep the king safe with the castle moves made by the king, which only come about
+        when the king neither starts, passes nor lands on an attacked tile, so every move in the list is legal*/
     }
 
     private King establishKing() {
@@ -67,55 +60,33 @@ public abstract class Player {
     }
 
     public boolean isInCheckMate(){
-        return this.isInCheck && !hasEscapeMoves();
+        return this.isInCheck && this.legalMoves.isEmpty();
     }
 
     public boolean isInStaleMate(){
-        return !this.isInCheck && !hasEscapeMoves();
+        return !this.isInCheck && this.legalMoves.isEmpty();
     }
 
     public boolean isCastled(){
         return false;
     }
 
-    protected boolean hasEscapeMoves() {
-        for(final Move move : this.legalMoves){
-            /* goes through the moves that you have with your king, and it makes those moves on an imaginary chess board
-            if the move is legal and the get move status returns true then you have an escape move, if you go through all
-            the moves and there isn't a move that makes this method return true, then you are effectively in checkmate */
-            final MoveTransition transition = makeMove(move);
-            if(transition.getMoveStatus().isDone()){
-                return true;
-            }
-        }
-        return false;
-    }
-
     public MoveTransition makeMove(final Move move){
 
         if(!isLegalMove(move)){
-            return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
-        }
-
-        final Board transitionBoard = move.execute();
-
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer().
-                getOpponent().getPlayerKing().getPiecePosition(), transitionBoard.currentPlayer().getLegalMoves());
-        /*After you make a move, you are no longer the current player, so the kingAttacks collection, calculates the
-        opponents kings piece position (which is effectively you) and the current players (opponent's) legal moves using the
-        attacksOnTile method which, if the position of your king and an opponents legal move is equal, you are in check
-        (aka a king attack)*/
-
-        if(!kingAttacks.isEmpty()){/*if the collection of attacks on your king is not empty there is a check so any move
-            you make that leaves your king in check will go back to the same board you were at*/
-            return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+            /*a move the piece could make but which leaves your king in check goes back to the same board you were at,
+            just like a move that is not possible at all*/
+            return new MoveTransition(this.board, move, this.candidateMoves.contains(move) ?
+                    MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE);
         }
 
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        //every move in the legal list is known to keep the king safe, so the new board needs no further check
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
     }
 
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
+    protected abstract Alliance getOpponentAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles (Collection<Move> playerLegals, Collection<Move> opponentsLegals);
+    protected abstract Collection<Move> calculateKingCastles (Collection<Move> playerLegals);
 }
@@ -12,11 +12,10 @@ import java.util.*;
 
 public class WhitePlayer extends Player{
     public WhitePlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves); /* in the player class it takes in legal moves
-        (your moves) and then the opponents moves. for the white pieces your moves are the white moves and the opponent
-        is the black moves*/
+                       final Collection<Move> whiteStandardLegalMoves) {
+        super(board, whiteStandardLegalMoves); /* in the player class it takes in legal moves (your moves), for the
+        white pieces your moves are the white moves. The opponent's moves are not needed, the board answers which tiles
+        they attack*/
     }
     @Override
     public Collection<Piece> getActivePieces() {
@@ -28,13 +27,18 @@ public class WhitePlayer extends Player{
         return Alliance.WHITE;
     }
 
+    @Override
+    protected Alliance getOpponentAlliance() {
+        return Alliance.BLACK;
+    }
+
     @Override
     public Player getOpponent() {
         return this.board.blackPlayer();
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals, final Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
         final List<Move> kingCastles = new ArrayList<>();
         if(this.playerKing.isFirstMove() && !this.isInCheck()) { //if it is the kings first move, and the king is not in check
             //whites king side castle
@@ -44,8 +48,8 @@ public class WhitePlayer extends Player{
                 can use the isTileOccupied method in the next line to make sure that the tile that a rook should be on in a king
                 side castle is occupied, therefore it will be a legal move*/
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(61, opponentsLegals).isEmpty() &&
-                       Player.calculateAttacksOnTile(62, opponentsLegals).isEmpty() &&
+                    if(!this.board.isSquareAttacked(61, Alliance.BLACK) &&
+                       !this.board.isSquareAttacked(62, Alliance.BLACK) &&
                        rookTile.getPiece().getPieceType().isRook()){
                        kingCastles.add(new Move.KingSideCastleMove(this.board,
                                                                     this.playerKing,
@@ -63,8 +67,8 @@ public class WhitePlayer extends Player{
                !this.board.getTile(57).isTileOccupied()){
                 final Tile rookTile = this.board.getTile(56);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(58, opponentsLegals).isEmpty() &&
-                       Player.calculateAttacksOnTile(59, opponentsLegals).isEmpty() &&
+                    if(!this.board.isSquareAttacked(58, Alliance.BLACK) &&
+                       !this.board.isSquareAttacked(59, Alliance.BLACK) &&
                        rookTile.getPiece().getPieceType().isRook()){
                        kingCastles.add(new Move.QueenSideCastleMove(this.board,
                                                                     this.playerKing,
@@ -0,0 +1,154 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class AlphaBeta implements InterruptibleStrategy {/*negamax with alpha-beta pruning on the search board.
+    The root is searched one ply deeper every iteration up to the configured depth, each iteration tries the previous
+    best move first and leaves its results in the transposition table, which makes the next iteration cheaper than
+    searching the full depth straight away*/
+
+    public static final int INFINITY = AlphaBetaSearcher.INFINITY;
+    public static final int MATE_SCORE = AlphaBetaSearcher.MATE_SCORE;
+    public static final int MAX_QUIESCENCE_DEPTH = AlphaBetaSearcher.MAX_QUIESCENCE_DEPTH;
+
+    private final AlphaBetaSearcher searcher;
+    private final int searchDepth;
+    private final int randomMargin;
+    private final Random random = new Random();
+
+    private int lastScore;
+    private int completedDepth;
+
+    public AlphaBeta(final int searchDepth) {
+        this(searchDepth, new TranspositionTable());
+    }
+
+    public AlphaBeta(final int searchDepth, final TranspositionTable transpositionTable) {
+        this(searchDepth, transpositionTable, 0);
+    }
+
+    public AlphaBeta(final int searchDepth, final TranspositionTable transpositionTable, final int randomMargin) {
+        this(searchDepth, transpositionTable, randomMargin, new StandardBoardEvaluator(true));
+    }
+
+    public AlphaBeta(final int searchDepth,
+                     final TranspositionTable transpositionTable,
+                     final int randomMargin,
+                     final BoardEvaluator boardEvaluator) {
+        /*a random margin above 0 picks randomly among the root moves scoring within that many centipawns of the best,
+        the same variety MiniMax gives, 0 always plays the best move. Like the table, an EvaluationCache passed in
+        keeps what it learned for as long as the caller keeps it, across moves and games*/
+        this.searcher = new AlphaBetaSearcher(boardEvaluator, transpositionTable);
+        this.searchDepth = Math.max(1, searchDepth);
+        this.randomMargin = Math.max(0, randomMargin);
+    }
+
+    @Override
+    public Move execute(final Board board, final PositionHistory history) {
+        return execute(board, history, SearchLimits.depth(this.searchDepth), null);
+    }
+
+    @Override
+    public Move execute(final Board board,
+                        final PositionHistory history,
+                        final SearchLimits limits,
+                        final SearchListener listener) {
+        final long start = System.nanoTime();
+        final SearchBoard searchBoard = new SearchBoard(board, history);
+        this.searcher.newSearch();
+        this.searcher.setStopConditions(limits.getCancellation(), limits.hasHardLimit(),
+                start + limits.getHardLimitNanos());
+        this.completedDepth = 0;
+
+        final int[] rootMoves = new int[SearchBoard.MAX_MOVES];
+        final int[] rootScores = new int[SearchBoard.MAX_MOVES];
+        //an aborted iteration leaves new scores in front of old ones, the move is picked from the last full iteration
+        final int[] completedMoves = new int[SearchBoard.MAX_MOVES];
+        final int[] completedScores = new int[SearchBoard.MAX_MOVES];
+        final int rootCount = AlphaBetaSearcher.collectLegalMoves(searchBoard, rootMoves);
+        if (rootCount == 0) {
+            return Move.NULL_MOVE;
+        }
+
+        for (int depth = 1; depth <= limits.getMaxDepth(); depth++) {
+            final int bestIndex =
+                    this.searcher.searchRoot(searchBoard, rootMoves, rootScores, rootCount, depth, this.randomMargin);
+            if (this.searcher.isAborted()) {
+                break; //a half searched iteration proves nothing, the previous order stands
+            }
+            //the best move goes to the front so the next iteration searches it first and gets a tight bound early
+            AlphaBetaSearcher.moveToFront(rootMoves, rootScores, bestIndex);
+            System.arraycopy(rootMoves, 0, completedMoves, 0, rootCount);
+            System.arraycopy(rootScores, 0, completedScores, 0, rootCount);
+            this.lastScore = rootScores[0];
+            this.completedDepth = depth;
+            if (listener != null) {
+                listener.iterationCompleted(depth, this.lastScore, this.searcher.getNodesSearched(),
+                        AlphaBetaSearcher.principalVariation(searchBoard, rootMoves[0], getTranspositionTable(), depth));
+            }
+            if (limits.isSoftLimitReached(start) || limits.isCancelled()) {
+                break;
+            }
+        }
+        if (this.completedDepth == 0) {
+            return SearchMove.toMove(board, rootMoves[0]); //stopped before depth 1 was done, any legal move will do
+        }
+        return SearchMove.toMove(board, pickMove(completedMoves, completedScores, rootCount));
+    }
+
+    private int pickMove(final int[] completedMoves, final int[] completedScores, final int rootCount) {
+        //the best move of the last completed iteration sits at the front, with a margin any close move may be played
+        if (this.randomMargin == 0 || completedScores[0] > AlphaBetaSearcher.MATE_BOUND) {
+            return completedMoves[0];
+        }
+        final List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < rootCount; i++) {
+            if (completedScores[i] >= completedScores[0] - this.randomMargin) {
+                candidates.add(completedMoves[i]);
+            }
+        }
+        return candidates.get(this.random.nextInt(candidates.size()));
+    }
+
+    public long getNodesSearched() {
+        return this.searcher.getNodesSearched();
+    }
+
+    public int getSelectiveDepth() {
+        return this.searcher.getSelectiveDepth();
+    }
+
+    public MoveOrderer getMoveOrderer() {
+        return this.searcher.getMoveOrderer();
+    }
+
+    public double getFirstMoveCutoffRate() {
+        //share of the beta cutoffs that came from the first move searched, the closer to 1 the better the ordering
+        return this.searcher.getMoveOrderer().getFirstMoveCutoffRate();
+    }
+
+    public int getLastScore() {
+        return this.lastScore;
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.searcher.getTranspositionTable();
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta depth " + this.searchDepth;
+    }
+}
@@ -0,0 +1,357 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class AlphaBetaSearcher {/*the negamax below the root, shared by every alpha-beta strategy. A searcher is not
+    thread safe, parallel strategies give every thread its own searcher on its own copy of the search board*/
+
+    static final int INFINITY = 1_000_000;
+    static final int MATE_SCORE = 100_000;
+    static final int MATE_BOUND = MATE_SCORE - SearchBoard.MAX_PLY; //anything above this is a forced mate
+    static final int DRAW_SCORE = 0;
+
+    private final BoardEvaluator boardEvaluator;
+    private final TranspositionTable transpositionTable;
+    private final int[][] moveBuffers = new int[SearchBoard.MAX_PLY][SearchBoard.MAX_MOVES]; //one move list per ply
+    private final int[][] scoreBuffers = new int[SearchBoard.MAX_PLY][SearchBoard.MAX_MOVES];
+    private final int[][] captureBuffers = new int[MAX_QUIESCENCE_DEPTH][SearchBoard.MAX_MOVES];
+    private final int[][] captureScoreBuffers = new int[MAX_QUIESCENCE_DEPTH][SearchBoard.MAX_MOVES];
+    private final MoveOrderer moveOrderer = new MoveOrderer();
+
+    private static final int STOP_CHECK_INTERVAL = 1024; //nodes between two looks at the clock and the cancellation
+    static final int MAX_QUIESCENCE_DEPTH = 8; //captures past the horizon, enough to settle any exchange
+    private static final int DELTA_MARGIN = 200; //what positional terms could add on top of the captured material
+    private static final int[] PIECE_VALUES = initPieceValues();
+
+    private long nodesSearched;
+    private int selectiveDepth; //the deepest ply any quiescence search reached, the seldepth of UCI
+    private CancellationToken cancellation;
+    private boolean hasDeadline;
+    private long deadline; //System.nanoTime() at which the search has to stop
+    private boolean aborted;
+
+    private static int[] initPieceValues() {
+        final Piece.PieceType[] pieceTypes = Piece.PieceType.values();
+        final int[] values = new int[pieceTypes.length];
+        for (final Piece.PieceType pieceType : pieceTypes) {
+            values[pieceType.ordinal()] = pieceType.getPieceValue();
+        }
+        return values;
+    }
+
+    AlphaBetaSearcher(final BoardEvaluator boardEvaluator, final TranspositionTable transpositionTable) {
+        this.boardEvaluator = boardEvaluator;
+        this.transpositionTable = transpositionTable;
+    }
+
+    TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    int getSelectiveDepth() {
+        return this.selectiveDepth;
+    }
+
+    MoveOrderer getMoveOrderer() {
+        return this.moveOrderer;
+    }
+
+    void newSearch() {
+        //called once per move to play, node counts start over and the ordering heuristics forget the old position
+        this.nodesSearched = 0;
+        this.selectiveDepth = 0;
+        this.moveOrderer.newSearch();
+    }
+
+    void setStopConditions(final CancellationToken cancellation, final boolean hasDeadline, final long deadline) {
+        /*once the token is cancelled or the deadline has passed the search unwinds, results of an aborted search must
+        be thrown away*/
+        this.cancellation = cancellation;
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+        this.aborted = false;
+    }
+
+    private boolean shouldStop() {
+        return (this.cancellation != null && this.cancellation.isCancelled()) ||
+               (this.hasDeadline && System.nanoTime() - this.deadline >= 0);
+    }
+
+    boolean isAborted() {
+        return this.aborted;
+    }
+
+    int searchRoot(final SearchBoard searchBoard,
+                   final int[] rootMoves,
+                   final int[] rootScores,
+                   final int rootCount,
+                   final int depth,
+                   final int margin) {
+        /*searches every root move and returns the index of the best, the window is opened by the margin so every move
+        within the margin of the best gets an exact score*/
+        int bestScore = -INFINITY;
+        int bestIndex = 0;
+        for (int i = 0; i < rootCount; i++) {
+            final int alpha = bestScore == -INFINITY ? -INFINITY : bestScore - margin - 1;
+            searchBoard.makeMove(rootMoves[i]);
+            final int score = -search(searchBoard, depth - 1, -INFINITY, -alpha, 1);
+            searchBoard.unmakeMove();
+            if (this.aborted) {
+                return bestIndex;
+            }
+            rootScores[i] = score;
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = i;
+            }
+        }
+        this.transpositionTable.store(searchBoard.getZobristKey(), depth, TranspositionTable.EXACT,
+                toTableScore(bestScore, 0), rootMoves[bestIndex]);
+        return bestIndex;
+    }
+
+    int search(final SearchBoard searchBoard, final int depth, int alpha, final int beta, final int ply) {
+        this.nodesSearched++;
+        if ((this.nodesSearched & (STOP_CHECK_INTERVAL - 1)) == 0 && shouldStop()) {
+            this.aborted = true;
+        }
+        if (this.aborted) {
+            return DRAW_SCORE;
+        }
+
+        if (searchBoard.getHalfMoveClock() >= 100 || searchBoard.isRepetition()) {
+            return DRAW_SCORE;
+        }
+
+        final long key = searchBoard.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int hashMove = SearchMove.NONE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (TranspositionTable.getDepth(entry) >= depth) {
+                final int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+                final int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT ||
+                   (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                   (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        if (depth <= 0 || ply >= SearchBoard.MAX_PLY - MAX_QUIESCENCE_DEPTH) {
+            return quiescence(searchBoard, alpha, beta, 0);
+        }
+
+        final int[] moves = this.moveBuffers[ply];
+        final int[] scores = this.scoreBuffers[ply];
+        final int moveCount = searchBoard.generateMoves(moves, 0);
+        this.moveOrderer.scoreMoves(searchBoard, moves, scores, moveCount, hashMove, ply);
+
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = SearchMove.NONE;
+        int legalMoves = 0;
+        for (int i = 0; i < moveCount; i++) {
+            final int move = MoveOrderer.nextMove(moves, scores, i, moveCount);
+            if (!searchBoard.makeMove(move)) {
+                continue;
+            }
+            legalMoves++;
+            final int score = -search(searchBoard, depth - 1, -beta, -alpha, ply + 1);
+            searchBoard.unmakeMove();
+            if (this.aborted) {
+                return DRAW_SCORE; //the score is meaningless and must not reach the table
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        //the opponent will never allow this position, no need to look at the other moves
+                        this.moveOrderer.recordCutoff(searchBoard, move, depth, ply, legalMoves);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (bestMove == SearchMove.NONE) {
+            //no legal move: mated, the earlier the worse, or stalemate
+            return searchBoard.isInCheck() ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+
+        final int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                          bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        this.transpositionTable.store(key, depth, bound, toTableScore(bestScore, ply), bestMove);
+        return bestScore;
+    }
+
+    int quiescence(final SearchBoard searchBoard, int alpha, final int beta, final int quiescenceDepth) {
+        /*at the horizon the side to move may either stand pat on the static score or try a capture, so a leaf is never
+        scored in the middle of an exchange. Only material changing moves are searched and never deeper than
+        MAX_QUIESCENCE_DEPTH, which keeps the extra work bounded*/
+        this.nodesSearched++;
+        this.selectiveDepth = Math.max(this.selectiveDepth, searchBoard.getPly());
+        if ((this.nodesSearched & (STOP_CHECK_INTERVAL - 1)) == 0 && shouldStop()) {
+            this.aborted = true;
+        }
+        if (this.aborted) {
+            return DRAW_SCORE;
+        }
+
+        final int standPat = evaluate(searchBoard);
+        if (standPat >= beta || quiescenceDepth >= MAX_QUIESCENCE_DEPTH) {
+            return standPat;
+        }
+        if (standPat + PIECE_VALUES[SearchBoard.QUEEN] + DELTA_MARGIN < alpha) {
+            return standPat; //not even winning a queen would bring the score back up to alpha
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        final int[] moves = this.captureBuffers[quiescenceDepth];
+        final int[] scores = this.captureScoreBuffers[quiescenceDepth];
+        final int moveCount = searchBoard.generateCaptures(moves, 0);
+        this.moveOrderer.scoreCaptures(searchBoard, moves, scores, moveCount);
+        int bestScore = standPat;
+        for (int i = 0; i < moveCount; i++) {
+            final int move = MoveOrderer.nextMove(moves, scores, i, moveCount);
+            //delta pruning, a capture that cannot lift the score to alpha even with a margin is not worth searching
+            if (!SearchMove.isPromotion(move) &&
+                standPat + capturedValue(searchBoard, move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            if (!searchBoard.makeMove(move)) {
+                continue;
+            }
+            final int score = -quiescence(searchBoard, -beta, -alpha, quiescenceDepth + 1);
+            searchBoard.unmakeMove();
+            if (this.aborted) {
+                return DRAW_SCORE;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private static int capturedValue(final SearchBoard searchBoard, final int move) {
+        if (SearchMove.flags(move) == SearchMove.EN_PASSANT) {
+            return PIECE_VALUES[SearchBoard.PAWN];
+        }
+        final int captured = searchBoard.getPieceCode(SearchMove.to(move));
+        return captured == SearchBoard.EMPTY ? 0 : PIECE_VALUES[SearchBoard.pieceType(captured)];
+    }
+
+    int evaluate(final SearchBoard searchBoard) {
+        //the evaluator scores from white's point of view, negamax wants the side to move's point of view
+        final int eval = this.boardEvaluator.evaluate(searchBoard, 0);
+        return searchBoard.getSideToMove() == SearchBoard.WHITE ? eval : -eval;
+    }
+
+    static int toTableScore(final int score, final int ply) {
+        //mate scores are stored as distance from this node, not from the root, so they stay right in other move orders
+        if (score > MATE_BOUND) {
+            return score + ply;
+        }
+        if (score < -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    static int fromTableScore(final int score, final int ply) {
+        if (score > MATE_BOUND) {
+            return score - ply;
+        }
+        if (score < -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    static int collectLegalMoves(final SearchBoard searchBoard, final int[] legalMoves) {
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int moveCount = searchBoard.generateMoves(moves, 0);
+        int legalCount = 0;
+        for (int i = 0; i < moveCount; i++) {
+            if (searchBoard.makeMove(moves[i])) {
+                searchBoard.unmakeMove();
+                legalMoves[legalCount++] = moves[i];
+            }
+        }
+        return legalCount;
+    }
+
+    static List<String> principalVariation(final SearchBoard searchBoard,
+                                           final int bestMove,
+                                           final TranspositionTable transpositionTable,
+                                           final int maxLength) {
+        /*follows the best moves the table holds from the root, in long algebraic notation. A hash move is only played
+        when the position really has it, an entry of another position sharing the slot would lead the line astray*/
+        final List<String> line = new ArrayList<>();
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        int move = bestMove;
+        while (move != SearchMove.NONE && line.size() < maxLength && isGenerated(searchBoard, move, moves) &&
+               searchBoard.makeMove(move)) {
+            line.add(SearchMove.toString(move));
+            if (searchBoard.isRepetition()) {
+                break;
+            }
+            final long entry = transpositionTable.probe(searchBoard.getZobristKey());
+            move = entry == TranspositionTable.NO_ENTRY ? SearchMove.NONE : TranspositionTable.getMove(entry);
+        }
+        for (int i = 0; i < line.size(); i++) {
+            searchBoard.unmakeMove();
+        }
+        return line;
+    }
+
+    private static boolean isGenerated(final SearchBoard searchBoard, final int move, final int[] moves) {
+        final int moveCount = searchBoard.generateMoves(moves, 0);
+        for (int i = 0; i < moveCount; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static double firstMoveCutoffRate(final Iterable<AlphaBetaSearcher> searchers) {
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+        for (final AlphaBetaSearcher searcher : searchers) {
+            cutoffs += searcher.moveOrderer.getCutoffs();
+            firstMoveCutoffs += searcher.moveOrderer.getFirstMoveCutoffs();
+        }
+        return cutoffs == 0 ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    static void moveToFront(final int[] moves, final int[] scores, final int index) {
+        final int move = moves[index];
+        final int score = scores[index];
+        System.arraycopy(moves, 0, moves, 1, index);
+        System.arraycopy(scores, 0, scores, 1, index);
+        moves[0] = move;
+        scores[0] = score;
+    }
+}
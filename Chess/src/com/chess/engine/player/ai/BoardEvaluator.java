@@ -1,8 +1,14 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
 
 public interface BoardEvaluator {
 
     int evaluate(Board board, int depth);
+
+    default int evaluate(final SearchBoard board, final int depth) {
+        //evaluators that only understand the immutable board get a snapshot of the search position
+        return evaluate(board.toBoard(), depth);
+    }
 }
@@ -0,0 +1,16 @@
+package com.chess.engine.player.ai;
+
+public final class CancellationToken {/*lets whoever started a search call it off, a new game in the GUI or a closed
+    session on the server. A token is cancelled once and stays cancelled, every search gets a fresh one. The search
+    looks at it together with its hard deadline every few thousand nodes, so it gives up within about a millisecond*/
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
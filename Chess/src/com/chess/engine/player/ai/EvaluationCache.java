@@ -0,0 +1,103 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.Arrays;
+
+public final class EvaluationCache implements BoardEvaluator {/*remembers the scores of another evaluator keyed by the
+    position's Zobrist key. Sibling subtrees, transpositions, stepping back and forth through a game and the next game
+    from the same opening keep asking for positions that were scored before, those become one probe instead of a full
+    evaluation.
+
+    A slot is a check word and the score, checked like the TranspositionTable's and always replaced. The cache is only
+    as thread safe as the evaluator it wraps, a miss calls straight through to it.
+
+    An evaluator may score a Board and a SearchBoard of the same position differently and the depth can change the
+    checkmate bonus, so both go into the key alongside the Zobrist key*/
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final long SEARCH_BOARD_SALT = 0x9E3779B97F4A7C15L;
+    private static final long DEPTH_SALT = 0xC2B2AE3D27D4EB4FL;
+    private static final long VALID = 1L; //set in every stored data word, so an empty slot never matches
+
+    private final BoardEvaluator evaluator;
+    private final long[] slots;
+    private final int slotMask;
+
+    private final ProbeCounter probes = new ProbeCounter();
+
+    public EvaluationCache(final BoardEvaluator evaluator, final int capacity) {
+        //the capacity is the number of scores kept, rounded down to a power of two
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Evaluation cache needs at least 1 entry, got " + capacity);
+        }
+        final int slotCount = Integer.highestOneBit(Math.min(capacity, 1 << 26));
+        this.evaluator = evaluator;
+        this.slots = new long[slotCount * 2];
+        this.slotMask = slotCount - 1;
+    }
+
+    public EvaluationCache(final BoardEvaluator evaluator) {
+        this(evaluator, DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        final long key = board.getZobristKey() ^ depth * DEPTH_SALT;
+        final int index = ((int) key & this.slotMask) << 1;
+        final long data = this.slots[index + 1];
+        if ((this.slots[index] ^ data) == key && data != 0L) {
+            this.probes.hit();
+            return (int) (data >> 32);
+        }
+        this.probes.miss();
+        final int score = this.evaluator.evaluate(board, depth);
+        store(index, key, score);
+        return score;
+    }
+
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        final long key = board.getZobristKey() ^ depth * DEPTH_SALT ^ SEARCH_BOARD_SALT;
+        final int index = ((int) key & this.slotMask) << 1;
+        final long data = this.slots[index + 1];
+        if ((this.slots[index] ^ data) == key && data != 0L) {
+            this.probes.hit();
+            return (int) (data >> 32);
+        }
+        this.probes.miss();
+        final int score = this.evaluator.evaluate(board, depth);
+        store(index, key, score);
+        return score;
+    }
+
+    private void store(final int index, final long key, final int score) {
+        final long data = ((long) score << 32) | VALID;
+        this.slots[index + 1] = data;
+        this.slots[index] = key ^ data;
+    }
+
+    public BoardEvaluator getEvaluator() {
+        return this.evaluator;
+    }
+
+    public void clear() {
+        Arrays.fill(this.slots, 0L);
+        this.probes.reset();
+    }
+
+    public int getCapacity() {
+        return this.slots.length / 2;
+    }
+
+    public ProbeCounter getProbes() {
+        return this.probes;
+    }
+
+    @Override
+    public String toString() {
+        return "evaluation cache " + getCapacity() + " entries: " + this.probes;
+    }
+}
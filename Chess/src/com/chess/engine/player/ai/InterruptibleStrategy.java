@@ -0,0 +1,13 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PositionHistory;
+
+public interface InterruptibleStrategy extends MoveStrategy {/*a strategy that deepens one ply at a time within the given
+    limits. Once a hard limit passes or the limits' token is cancelled the search unwinds and plays the best move of the
+    last completed iteration*/
+
+    Move execute(Board board, PositionHistory history, SearchLimits limits, SearchListener listener);
+
+}
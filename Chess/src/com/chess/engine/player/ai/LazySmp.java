@@ -0,0 +1,196 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class LazySmp implements InterruptibleStrategy {/*every thread runs its own iterative deepening on the same
+    root, the threads never talk to each other except through the shared transposition table. Helpers start at
+    alternating depths and rotate the root moves, so they fill the table with different parts of the tree that the main
+    thread then finds already searched. The move played is always the main thread's*/
+
+    private final int searchDepth;
+    private final int threadCount;
+    private final TranspositionTable transpositionTable;
+    private final AlphaBetaSearcher[] searchers;
+    private final ExecutorService helpers;
+
+    private int lastScore;
+    private int completedDepth;
+
+    public LazySmp(final int searchDepth) {
+        this(searchDepth, Runtime.getRuntime().availableProcessors());
+    }
+
+    public LazySmp(final int searchDepth, final int threadCount) {
+        this(searchDepth, threadCount, new TranspositionTable());
+    }
+
+    public LazySmp(final int searchDepth, final int threadCount, final TranspositionTable transpositionTable) {
+        this(searchDepth, threadCount, transpositionTable, new StandardBoardEvaluator(true));
+    }
+
+    public LazySmp(final int searchDepth,
+                   final int threadCount,
+                   final TranspositionTable transpositionTable,
+                   final BoardEvaluator boardEvaluator) {
+        /*every thread scores through the one evaluator, so it has to be thread safe. The standard evaluator keeps no
+        state and an EvaluationCache around it takes no locks, so either can be shared*/
+        this.searchDepth = Math.max(1, searchDepth);
+        this.threadCount = Math.max(1, threadCount);
+        this.transpositionTable = transpositionTable;
+        this.searchers = new AlphaBetaSearcher[this.threadCount];
+        for (int i = 0; i < this.threadCount; i++) {
+            this.searchers[i] = new AlphaBetaSearcher(boardEvaluator, transpositionTable);
+        }
+        this.helpers = this.threadCount > 1 ? Executors.newFixedThreadPool(this.threadCount - 1, runnable -> {
+            final Thread thread = new Thread(runnable, "lazy-smp-helper");
+            thread.setDaemon(true); //helpers must never keep the GUI from closing
+            return thread;
+        }) : null;
+    }
+
+    @Override
+    public Move execute(final Board board, final PositionHistory history) {
+        return execute(board, history, SearchLimits.depth(this.searchDepth), null);
+    }
+
+    @Override
+    public Move execute(final Board board,
+                        final PositionHistory history,
+                        final SearchLimits limits,
+                        final SearchListener listener) {
+        final long start = System.nanoTime();
+        final int[] rootMoves = new int[SearchBoard.MAX_MOVES];
+        final int rootCount = AlphaBetaSearcher.collectLegalMoves(new SearchBoard(board), rootMoves);
+        if (rootCount == 0) {
+            return Move.NULL_MOVE;
+        }
+
+        //helpers have no clock of their own, they run until the main thread is done and then get cancelled
+        final CancellationToken helperCancellation = new CancellationToken();
+        final SearchLimits helperLimits = new SearchLimits.Builder().setMaxDepth(limits.getMaxDepth() + 1)
+                .setCancellation(helperCancellation).build();
+        final List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < this.threadCount; i++) {
+            final int helper = i;
+            running.add(this.helpers.submit(() ->
+                    iterate(board, history, rootMoves, rootCount, helper, helperLimits, start, null)));
+        }
+        final int bestMove = iterate(board, history, rootMoves, rootCount, 0, limits, start, listener);
+
+        helperCancellation.cancel(); //whatever the helpers are searching is no longer needed
+        for (final Future<?> future : running) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        return SearchMove.toMove(board, bestMove);
+    }
+
+    private int iterate(final Board board,
+                        final PositionHistory history,
+                        final int[] sharedRootMoves,
+                        final int rootCount,
+                        final int thread,
+                        final SearchLimits limits,
+                        final long start,
+                        final SearchListener listener) {
+        final AlphaBetaSearcher searcher = this.searchers[thread];
+        final SearchBoard searchBoard = new SearchBoard(board, history); //threads only read the history, never push
+        searcher.newSearch();
+        searcher.setStopConditions(limits.getCancellation(), limits.hasHardLimit(), start + limits.getHardLimitNanos());
+
+        final int[] rootMoves = new int[rootCount];
+        final int[] rootScores = new int[rootCount];
+        for (int i = 0; i < rootCount; i++) {
+            rootMoves[i] = sharedRootMoves[(i + thread) % rootCount]; //helpers start on a different root move
+        }
+
+        //odd helpers search one ply deeper than even ones, helpers may also run one ply past the main thread's depth
+        final int firstDepth = 1 + (thread & 1);
+        for (int depth = firstDepth; depth <= limits.getMaxDepth(); depth++) {
+            final int bestIndex = searcher.searchRoot(searchBoard, rootMoves, rootScores, rootCount, depth, 0);
+            if (searcher.isAborted()) {
+                break;
+            }
+            AlphaBetaSearcher.moveToFront(rootMoves, rootScores, bestIndex);
+            if (thread == 0) {
+                this.lastScore = rootScores[0];
+                this.completedDepth = depth;
+                if (listener != null) {
+                    listener.iterationCompleted(depth, this.lastScore, getNodesSearched(), AlphaBetaSearcher
+                            .principalVariation(searchBoard, rootMoves[0], this.transpositionTable, depth));
+                }
+            }
+            if (limits.isSoftLimitReached(start) || limits.isCancelled()) {
+                break;
+            }
+        }
+        return rootMoves[0];
+    }
+
+    public Map<String, Long> getNodesPerThread() {
+        final Map<String, Long> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < this.threadCount; i++) {
+            nodes.put(i == 0 ? "main" : "helper-" + i, this.searchers[i].getNodesSearched());
+        }
+        return Collections.unmodifiableMap(nodes);
+    }
+
+    public long getNodesSearched() {
+        long nodes = 0;
+        for (final AlphaBetaSearcher searcher : this.searchers) {
+            nodes += searcher.getNodesSearched();
+        }
+        return nodes;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return AlphaBetaSearcher.firstMoveCutoffRate(Arrays.asList(this.searchers));
+    }
+
+    public int getLastScore() {
+        return this.lastScore;
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    public void shutdown() {
+        if (this.helpers != null) {
+            this.helpers.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LazySmp depth " + this.searchDepth + " on " + this.threadCount + " threads";
+    }
+}
@@ -2,72 +2,108 @@ package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.player.MoveTransition;
-import com.chess.gui.Table;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
 public final class MiniMax implements MoveStrategy {
 
     private final BoardEvaluator boardEvaluator;
     private final int searchDepth;
+    private final TranspositionTable transpositionTable;
+    private final AlphaBetaSearcher searcher;
 
     public MiniMax(final int searchDepth) {
-        this.boardEvaluator = new StandardBoardEvaluator();
+        this(searchDepth, new TranspositionTable());
+    }
+
+    public MiniMax(final int searchDepth, final TranspositionTable transpositionTable) {
+        this(searchDepth, transpositionTable, new StandardBoardEvaluator(true));
+    }
+
+    public MiniMax(final int searchDepth,
+                   final TranspositionTable transpositionTable,
+                   final BoardEvaluator boardEvaluator) {
+        this.boardEvaluator = boardEvaluator;
         this.searchDepth = searchDepth;
+        this.transpositionTable = transpositionTable;
+        this.searcher = new AlphaBetaSearcher(this.boardEvaluator, transpositionTable);
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    private int evaluateForSideToMove(final SearchBoard searchBoard) {
+        /*leaf scores go through the transposition table, scores are stored from the point of view of the side to move
+        so the same entry serves whichever move order reached the position. A leaf is scored by a quiescence search,
+        so a position in the middle of an exchange is not taken at face value. Only depth 0 entries are leaf scores, the
+        table also holds the two ply scores of this class and the deeper, mate adjusted scores of AlphaBeta*/
+        final long key = searchBoard.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) == 0 &&
+            TranspositionTable.getBound(entry) == TranspositionTable.EXACT) {
+            return TranspositionTable.getScore(entry);
+        }
+        final int score = this.searcher.quiescence(searchBoard, -AlphaBetaSearcher.INFINITY, AlphaBetaSearcher.INFINITY, 0);
+        this.transpositionTable.store(key, 0, TranspositionTable.EXACT, score, SearchMove.NONE);
+        return score;
     }
 
     @Override
-    public Move execute(final Board board) {
+    public Move execute(final Board board, final PositionHistory history) {
 
         if (this.searchDepth <= 1) {
-            return executeOnePlyGreedy(board);   // EASY
+            return executeOnePlyGreedy(board, history);   // EASY
         } else if (this.searchDepth == 2) {
-            return executeTwoPly(board, 150);     // MEDIUM
+            return executeTwoPly(board, history, 150);     // MEDIUM
         } else {
-            return executeTwoPly(board, 50);      // HARD
+            return executeTwoPly(board, history, 50);      // HARD
         }
     }
-    private Move executeOnePlyGreedy(final Board board) {
+    private Move executeOnePlyGreedy(final Board board, final PositionHistory history) {
 
+        final SearchBoard searchBoard = new SearchBoard(board, history);
         final boolean isWhiteToMove = board.currentPlayer().getAlliance().isWhite();
 
         final int currentEval = this.boardEvaluator.evaluate(board, 0);
         final int currentScoreForMover = isWhiteToMove ? currentEval : -currentEval;
 
-        Move bestNonDrawMove = null;
+        int bestNonDrawMove = SearchMove.NONE;
         int bestNonDrawScore = Integer.MIN_VALUE;
 
-        Move bestDrawMove = null;
+        int bestDrawMove = SearchMove.NONE;
         int bestDrawScore = Integer.MIN_VALUE;
 
-        Move anyLegalMove = null;
+        int anyLegalMove = SearchMove.NONE;
 
-        for (final Move move : board.currentPlayer().getLegalMoves()) {
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int moveCount = searchBoard.generateMoves(moves, 0);
+        for (int i = 0; i < moveCount; i++) {
+            final int move = moves[i];
 
-            if (anyLegalMove == null) {
-                anyLegalMove = move;
-            }
-
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (!moveTransition.getMoveStatus().isDone()) {
+            if (!searchBoard.makeMove(move)) {
                 continue;
             }
+            if (anyLegalMove == SearchMove.NONE) {
+                anyLegalMove = move;
+            }
 
-            final Board transitionBoard = moveTransition.getTransitionBoard();
-
-            final int eval = this.boardEvaluator.evaluate(transitionBoard, 0);
-            int scoreForMover = isWhiteToMove ? eval : -eval;
+            int scoreForMover = -evaluateForSideToMove(searchBoard);
 
             // checkmate of opponent
-            if (transitionBoard.currentPlayer().isInCheckMate()) {
+            if (searchBoard.isCheckMate()) {
                 scoreForMover += 100_000;
                 if (scoreForMover > bestNonDrawScore) {
                     bestNonDrawScore = scoreForMover;
                     bestNonDrawMove = move;
                 }
+                searchBoard.unmakeMove();
                 continue;
             }
 
             // threefold repetition?
-            if (Table.get().wouldBeThreefold(transitionBoard)) {
+            if (history.wouldBeThreefold(searchBoard.getZobristKey())) {
+                searchBoard.unmakeMove();
                 if (currentScoreForMover > 0) {
                     // if we're winning, don't repeat
                     continue;
@@ -80,13 +116,15 @@ public final class MiniMax implements MoveStrategy {
             }
 
             // stalemate?
-            if (transitionBoard.currentPlayer().isInStaleMate()) {
+            if (searchBoard.isStaleMate()) {
+                searchBoard.unmakeMove();
                 if (scoreForMover > bestDrawScore) {
                     bestDrawScore = scoreForMover;
                     bestDrawMove = move;
                 }
                 continue;
             }
+            searchBoard.unmakeMove();
 
             // normal move
             if (scoreForMover > bestNonDrawScore) {
@@ -95,47 +133,48 @@ public final class MiniMax implements MoveStrategy {
             }
         }
 
-        if (bestNonDrawMove != null) return bestNonDrawMove;
-        if (bestDrawMove != null) return bestDrawMove;
-        return anyLegalMove;
+        if (bestNonDrawMove != SearchMove.NONE) return SearchMove.toMove(board, bestNonDrawMove);
+        if (bestDrawMove != SearchMove.NONE) return SearchMove.toMove(board, bestDrawMove);
+        return SearchMove.toMove(board, anyLegalMove);
     }
 
 
-    private Move executeTwoPly(final Board board, final int margin) {
+    private Move executeTwoPly(final Board board, final PositionHistory history, final int margin) {
 
+        final SearchBoard searchBoard = new SearchBoard(board, history);
         final boolean isWhiteToMove = board.currentPlayer().getAlliance().isWhite();
 
         final int currentEval = this.boardEvaluator.evaluate(board, 0);
         final int currentScoreForMover = isWhiteToMove ? currentEval : -currentEval;
 
-        Move bestNonDrawMove = null;
+        int bestNonDrawMove = SearchMove.NONE;
         int bestNonDrawScore = Integer.MIN_VALUE;
 
-        Move bestDrawMove = null;
+        int bestDrawMove = SearchMove.NONE;
         int bestDrawScore = Integer.MIN_VALUE;
 
-        Move anyLegalMove = null;
-
-        final java.util.Map<Move, Integer> nonDrawScores = new java.util.HashMap<>();
+        int anyLegalMove = SearchMove.NONE;
 
-        for (final Move move : board.currentPlayer().getLegalMoves()) {
+        final java.util.Map<Integer, Integer> nonDrawScores = new java.util.LinkedHashMap<>();
 
-            if (anyLegalMove == null) {
-                anyLegalMove = move;
-            }
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int[] replies = new int[SearchBoard.MAX_MOVES];
+        final int moveCount = searchBoard.generateMoves(moves, 0);
+        for (int i = 0; i < moveCount; i++) {
+            final int move = moves[i];
 
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (!moveTransition.getMoveStatus().isDone()) {
+            if (!searchBoard.makeMove(move)) {
                 continue;
             }
+            if (anyLegalMove == SearchMove.NONE) {
+                anyLegalMove = move;
+            }
 
-            final Board transitionBoard = moveTransition.getTransitionBoard();
-
-            final int baseEval = this.boardEvaluator.evaluate(transitionBoard, 0);
-            final int scoreForMover = isWhiteToMove ? baseEval : -baseEval;
+            final int scoreForMover = -evaluateForSideToMove(searchBoard);
 
             // 1) mate
-            if (transitionBoard.currentPlayer().isInCheckMate()) {
+            if (searchBoard.isCheckMate()) {
+                searchBoard.unmakeMove();
                 int mateScore = scoreForMover + 100_000;
                 nonDrawScores.put(move, mateScore);
                 if (mateScore > bestNonDrawScore) {
@@ -146,7 +185,8 @@ public final class MiniMax implements MoveStrategy {
             }
 
             // 2) threefold
-            if (Table.get().wouldBeThreefold(transitionBoard)) {
+            if (history.wouldBeThreefold(searchBoard.getZobristKey())) {
+                searchBoard.unmakeMove();
                 if (currentScoreForMover > 0) {
                     continue; // refuse repetition when better
                 }
@@ -158,7 +198,8 @@ public final class MiniMax implements MoveStrategy {
             }
 
             // 3) stalemate
-            if (transitionBoard.currentPlayer().isInStaleMate()) {
+            if (searchBoard.isStaleMate()) {
+                searchBoard.unmakeMove();
                 if (scoreForMover > bestDrawScore) {
                     bestDrawScore = scoreForMover;
                     bestDrawMove = move;
@@ -166,28 +207,36 @@ public final class MiniMax implements MoveStrategy {
                 continue;
             }
 
-            // 4) simulate opponent reply (2-ply)
+            // 4) simulate opponent reply (2-ply), made and unmade in place on the search board
             int worstReplyScore = Integer.MAX_VALUE;
-
-            for (final Move oppMove : transitionBoard.currentPlayer().getLegalMoves()) {
-
-                final MoveTransition oppTransition =
-                        transitionBoard.currentPlayer().makeMove(oppMove);
-
-                if (!oppTransition.getMoveStatus().isDone()) {
-                    continue;
+            final long replyKey = searchBoard.getZobristKey();
+            final long replyEntry = this.transpositionTable.probe(replyKey);
+
+            if (replyEntry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(replyEntry) >= 1 &&
+                TranspositionTable.getBound(replyEntry) == TranspositionTable.EXACT) {
+                worstReplyScore = -TranspositionTable.getScore(replyEntry); // already searched from an earlier turn
+            } else {
+                int bestReply = SearchMove.NONE;
+                final int replyCount = searchBoard.generateMoves(replies, 0);
+                for (int j = 0; j < replyCount; j++) {
+
+                    if (!searchBoard.makeMove(replies[j])) {
+                        continue;
+                    }
+
+                    final int scoreForMoverIfThisReply = evaluateForSideToMove(searchBoard);
+                    searchBoard.unmakeMove();
+
+                    if (scoreForMoverIfThisReply < worstReplyScore) {
+                        worstReplyScore = scoreForMoverIfThisReply;
+                        bestReply = replies[j];
+                    }
                 }
-
-                final Board replyBoard = oppTransition.getTransitionBoard();
-
-                final int replyEval = this.boardEvaluator.evaluate(replyBoard, 0);
-                final int scoreForMoverIfThisReply =
-                        isWhiteToMove ? replyEval : -replyEval;
-
-                if (scoreForMoverIfThisReply < worstReplyScore) {
-                    worstReplyScore = scoreForMoverIfThisReply;
+                if (worstReplyScore != Integer.MAX_VALUE) {
+                    this.transpositionTable.store(replyKey, 1, TranspositionTable.EXACT, -worstReplyScore, bestReply);
                 }
             }
+            searchBoard.unmakeMove();
 
             if (worstReplyScore == Integer.MAX_VALUE) {
                 worstReplyScore = scoreForMover;
@@ -201,10 +250,10 @@ public final class MiniMax implements MoveStrategy {
             }
         }
 
-        if (bestNonDrawMove != null && !nonDrawScores.isEmpty()) {
+        if (bestNonDrawMove != SearchMove.NONE && !nonDrawScores.isEmpty()) {
 
-            java.util.List<Move> candidates = new java.util.ArrayList<>();
-            for (java.util.Map.Entry<Move, Integer> entry : nonDrawScores.entrySet()) {
+            java.util.List<Integer> candidates = new java.util.ArrayList<>();
+            for (java.util.Map.Entry<Integer, Integer> entry : nonDrawScores.entrySet()) {
                 if (entry.getValue() >= bestNonDrawScore - margin) {
                     candidates.add(entry.getKey());
                 }
@@ -212,16 +261,16 @@ public final class MiniMax implements MoveStrategy {
 
             if (!candidates.isEmpty()) {
                 java.util.Random rng = new java.util.Random();
-                return candidates.get(rng.nextInt(candidates.size()));
+                return SearchMove.toMove(board, candidates.get(rng.nextInt(candidates.size())));
             }
 
-            return bestNonDrawMove;
+            return SearchMove.toMove(board, bestNonDrawMove);
         }
 
-        if (bestDrawMove != null) {
-            return bestDrawMove;
+        if (bestDrawMove != SearchMove.NONE) {
+            return SearchMove.toMove(board, bestDrawMove);
         }
 
-        return anyLegalMove;
+        return SearchMove.toMove(board, anyLegalMove);
     }
 }
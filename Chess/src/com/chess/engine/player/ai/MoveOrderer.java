@@ -0,0 +1,176 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+public final class MoveOrderer {/*gives every move of a node a score and hands the moves out best first, so alpha-beta
+    finds its cutoffs early. The hash move comes first, then captures and promotions by most valuable victim, least
+    valuable attacker, then the two killer moves of the ply and finally the quiet moves by their history score.
+
+    Killers and history are learned from the cutoffs of the running search, so an orderer belongs to one search thread,
+    it is not thread safe*/
+
+    private static final int HASH_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 500_000;
+    private static final int FIRST_KILLER_SCORE = 400_000;
+    private static final int SECOND_KILLER_SCORE = 390_000;
+    private static final int HISTORY_LIMIT = 300_000; //history stays below the killers, halved when it gets there
+
+    private static final int[] PIECE_VALUES = initPieceValues();
+
+    private final int[][] killers = new int[SearchBoard.MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64]; //butterfly table, side to move, source and destination tile
+
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    private static int[] initPieceValues() {
+        final Piece.PieceType[] pieceTypes = Piece.PieceType.values();
+        final int[] values = new int[pieceTypes.length];
+        for (final Piece.PieceType pieceType : pieceTypes) {
+            values[pieceType.ordinal()] = pieceType.getPieceValue();
+        }
+        return values;
+    }
+
+    public void newSearch() {
+        //killers belong to the old position's plies, history still says something about the new one so it only fades
+        for (final int[] slots : this.killers) {
+            Arrays.fill(slots, SearchMove.NONE);
+        }
+        ageHistory();
+        this.cutoffs = 0;
+        this.firstMoveCutoffs = 0;
+    }
+
+    public void clear() {
+        for (final int[] slots : this.killers) {
+            Arrays.fill(slots, SearchMove.NONE);
+        }
+        for (final int[][] side : this.history) {
+            for (final int[] from : side) {
+                Arrays.fill(from, 0);
+            }
+        }
+        this.cutoffs = 0;
+        this.firstMoveCutoffs = 0;
+    }
+
+    public void scoreMoves(final SearchBoard searchBoard,
+                           final int[] moves,
+                           final int[] scores,
+                           final int moveCount,
+                           final int hashMove,
+                           final int ply) {
+        final int side = searchBoard.getSideToMove();
+        final int[] plyKillers = this.killers[ply];
+        for (int i = 0; i < moveCount; i++) {
+            final int move = moves[i];
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (SearchMove.isCapture(move) || SearchMove.isPromotion(move)) {
+                scores[i] = CAPTURE_SCORE + captureScore(searchBoard, move);
+            } else if (move == plyKillers[0]) {
+                scores[i] = FIRST_KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                scores[i] = SECOND_KILLER_SCORE;
+            } else {
+                scores[i] = this.history[side][SearchMove.from(move)][SearchMove.to(move)];
+            }
+        }
+    }
+
+    public void scoreCaptures(final SearchBoard searchBoard, final int[] moves, final int[] scores, final int moveCount) {
+        //the quiescence search only sees captures and promotions, they need no killers or history
+        for (int i = 0; i < moveCount; i++) {
+            scores[i] = captureScore(searchBoard, moves[i]);
+        }
+    }
+
+    public static int nextMove(final int[] moves, final int[] scores, final int index, final int moveCount) {
+        /*selection sort one step at a time, a node that cuts off after a few moves never pays for sorting the rest*/
+        int best = index;
+        for (int i = index + 1; i < moveCount; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        final int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        final int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    public void recordCutoff(final SearchBoard searchBoard,
+                             final int move,
+                             final int depth,
+                             final int ply,
+                             final int moveNumber) {
+        //moveNumber counts the legal moves searched at the node, a cutoff on 1 means the ordering got it right
+        this.cutoffs++;
+        if (moveNumber == 1) {
+            this.firstMoveCutoffs++;
+        }
+        if (SearchMove.isCapture(move) || SearchMove.isPromotion(move)) {
+            return; //captures are already ordered by what they take
+        }
+        final int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        final int[] from = this.history[searchBoard.getSideToMove()][SearchMove.from(move)];
+        from[SearchMove.to(move)] += depth * depth;
+        if (from[SearchMove.to(move)] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    private void ageHistory() {
+        for (final int[][] side : this.history) {
+            for (final int[] from : side) {
+                for (int to = 0; to < from.length; to++) {
+                    from[to] >>= 1;
+                }
+            }
+        }
+    }
+
+    private static int captureScore(final SearchBoard searchBoard, final int move) {
+        //most valuable victim first, among captures of the same piece the cheapest attacker first
+        final int attacker = PIECE_VALUES[SearchBoard.pieceType(searchBoard.getPieceCode(SearchMove.from(move)))];
+        final int victim;
+        if (SearchMove.flags(move) == SearchMove.EN_PASSANT) {
+            victim = PIECE_VALUES[SearchBoard.PAWN];
+        } else {
+            final int captured = searchBoard.getPieceCode(SearchMove.to(move));
+            victim = captured == SearchBoard.EMPTY ? 0 : PIECE_VALUES[SearchBoard.pieceType(captured)];
+        }
+        final int promotion = SearchMove.isPromotion(move) ? PIECE_VALUES[SearchMove.promotionType(move)] : 0;
+        return (victim + promotion) * 10 - attacker / 100;
+    }
+
+    public long getCutoffs() {
+        return this.cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return this.firstMoveCutoffs;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return this.cutoffs == 0 ? 0.0 : (double) this.firstMoveCutoffs / this.cutoffs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Ordering: cutoffs=%d firstMove=%d firstMoveRate=%.1f%%",
+                this.cutoffs, this.firstMoveCutoffs, getFirstMoveCutoffRate() * 100);
+    }
+}
@@ -2,9 +2,15 @@ package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.PositionHistory;
 
 public interface MoveStrategy {
 
-    Move execute (Board board);
+    Move execute (Board board, PositionHistory history);
+
+    default Move execute (final Board board) {
+        //a position without a game behind it, only repetitions inside the search tree count
+        return execute(board, new PositionHistory(board));
+    }
 
 }
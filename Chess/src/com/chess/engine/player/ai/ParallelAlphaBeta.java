@@ -0,0 +1,225 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class ParallelAlphaBeta implements MoveStrategy {/*the same iterative deepening as AlphaBeta, but the root
+    moves of every iteration are split across a fork-join pool. The first root move is searched alone to get a bound,
+    then the rest are searched in parallel. The best score so far is shared, every root move starts with it as alpha,
+    so a thread that finishes early narrows the window of the moves that start after it. All threads share one table, the
+    pool does not keep a root move on the same thread from one iteration to the next, so whichever thread gets it still
+    finds the hash move and bounds of the previous iteration*/
+
+    private static final int INFINITY = AlphaBetaSearcher.INFINITY;
+    private static final int INDEX_MASK = 0xFFFF;
+
+    private final int searchDepth;
+    private final int threadCount;
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final BoardEvaluator boardEvaluator;
+    private final Map<Thread, AlphaBetaSearcher> searchers = new ConcurrentHashMap<>();
+
+    private int lastScore;
+    private int completedDepth;
+
+    public ParallelAlphaBeta(final int searchDepth) {
+        this(searchDepth, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelAlphaBeta(final int searchDepth, final int threadCount) {
+        this(searchDepth, threadCount, new TranspositionTable());
+    }
+
+    public ParallelAlphaBeta(final int searchDepth, final int threadCount, final TranspositionTable transpositionTable) {
+        this(searchDepth, threadCount, transpositionTable, new StandardBoardEvaluator(true));
+    }
+
+    public ParallelAlphaBeta(final int searchDepth,
+                             final int threadCount,
+                             final TranspositionTable transpositionTable,
+                             final BoardEvaluator boardEvaluator) {
+        //as with LazySmp the evaluator is used by every pool thread at once, so it has to be thread safe
+        this.searchDepth = Math.max(1, searchDepth);
+        this.threadCount = Math.max(1, threadCount);
+        this.pool = new ForkJoinPool(this.threadCount);
+        this.transpositionTable = transpositionTable;
+        this.boardEvaluator = boardEvaluator;
+    }
+
+    private AlphaBetaSearcher searcher() {
+        //each pool thread keeps its searcher, with its killers and history, from move to move while the thread lives
+        return this.searchers.computeIfAbsent(Thread.currentThread(), thread ->
+                new AlphaBetaSearcher(this.boardEvaluator, this.transpositionTable));
+    }
+
+    @Override
+    public Move execute(final Board board, final PositionHistory history) {
+        this.searchers.keySet().removeIf(thread -> !thread.isAlive()); //idle pool threads retire, their searchers go with them
+        for (final AlphaBetaSearcher searcher : this.searchers.values()) {
+            searcher.newSearch();
+        }
+        this.completedDepth = 0;
+
+        final int[] rootMoves = new int[SearchBoard.MAX_MOVES];
+        final int[] rootScores = new int[SearchBoard.MAX_MOVES];
+        final int rootCount = AlphaBetaSearcher.collectLegalMoves(new SearchBoard(board), rootMoves);
+        if (rootCount == 0) {
+            return Move.NULL_MOVE;
+        }
+
+        for (int depth = 1; depth <= this.searchDepth; depth++) {
+            final int bestIndex = searchRoot(board, history, rootMoves, rootScores, rootCount, depth);
+            AlphaBetaSearcher.moveToFront(rootMoves, rootScores, bestIndex);
+            this.lastScore = rootScores[0];
+            this.completedDepth = depth;
+        }
+        return SearchMove.toMove(board, rootMoves[0]);
+    }
+
+    private int searchRoot(final Board board,
+                           final PositionHistory history,
+                           final int[] rootMoves,
+                           final int[] rootScores,
+                           final int rootCount,
+                           final int depth) {
+        /*the shared best packs the score in the high half and the inverted root index in the low half, so a plain
+        maximum prefers the higher score and, on equal scores, the earlier move, which is the move the serial search
+        keeps because later moves only replace it when they are strictly better*/
+        final AtomicLong best = new AtomicLong(pack(-INFINITY, INDEX_MASK));
+        final SearchBoard firstBoard = new SearchBoard(board, history);
+        searchRootMove(searcher(), firstBoard, rootMoves, rootScores, 0, depth, best);
+        if (rootCount > 1) {
+            this.pool.invoke(new RootTask(board, history, rootMoves, rootScores, 1, rootCount, depth, best));
+        }
+        return unpackIndex(best.get());
+    }
+
+    private static void searchRootMove(final AlphaBetaSearcher searcher,
+                                       final SearchBoard searchBoard,
+                                       final int[] rootMoves,
+                                       final int[] rootScores,
+                                       final int index,
+                                       final int depth,
+                                       final AtomicLong best) {
+        final long shared = best.get();
+        final int bestScore = unpackScore(shared);
+        //an earlier move only has to equal the best to take its place, a later move has to beat it
+        final int alpha = bestScore == -INFINITY ? -INFINITY : index < unpackIndex(shared) ? bestScore - 1 : bestScore;
+        searchBoard.makeMove(rootMoves[index]);
+        final int score = -searcher.search(searchBoard, depth - 1, -INFINITY, -alpha, 1);
+        searchBoard.unmakeMove();
+        rootScores[index] = score;
+        if (score > alpha) {
+            best.accumulateAndGet(pack(score, index), Math::max);
+        }
+    }
+
+    private static long pack(final int score, final int index) {
+        return ((long) score << 32) | (INDEX_MASK - index);
+    }
+
+    private static int unpackScore(final long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int unpackIndex(final long packed) {
+        return INDEX_MASK - (int) (packed & INDEX_MASK);
+    }
+
+    private final class RootTask extends RecursiveAction {//splits a range of root moves in halves until one move is left
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final PositionHistory history;
+        private final int[] rootMoves;
+        private final int[] rootScores;
+        private final int start;
+        private final int end;
+        private final int depth;
+        private final AtomicLong best;
+
+        private RootTask(final Board board, final PositionHistory history, final int[] rootMoves,
+                         final int[] rootScores, final int start, final int end, final int depth, final AtomicLong best) {
+            this.board = board;
+            this.history = history;
+            this.rootMoves = rootMoves;
+            this.rootScores = rootScores;
+            this.start = start;
+            this.end = end;
+            this.depth = depth;
+            this.best = best;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start == 1) {
+                searchRootMove(searcher(), new SearchBoard(this.board, this.history), this.rootMoves, this.rootScores,
+                        this.start, this.depth, this.best);
+                return;
+            }
+            final int middle = (this.start + this.end) >>> 1;
+            invokeAll(new RootTask(this.board, this.history, this.rootMoves, this.rootScores, this.start, middle,
+                                   this.depth, this.best),
+                      new RootTask(this.board, this.history, this.rootMoves, this.rootScores, middle, this.end,
+                                   this.depth, this.best));
+        }
+    }
+
+    public Map<String, Long> getNodesPerThread() {
+        final Map<String, Long> nodes = new LinkedHashMap<>();
+        for (final Map.Entry<Thread, AlphaBetaSearcher> entry : this.searchers.entrySet()) {
+            nodes.put(entry.getKey().getName(), entry.getValue().getNodesSearched());
+        }
+        return Collections.unmodifiableMap(nodes);
+    }
+
+    public long getNodesSearched() {
+        long nodes = 0;
+        for (final AlphaBetaSearcher searcher : this.searchers.values()) {
+            nodes += searcher.getNodesSearched();
+        }
+        return nodes;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return AlphaBetaSearcher.firstMoveCutoffRate(this.searchers.values());
+    }
+
+    public int getLastScore() {
+        return this.lastScore;
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelAlphaBeta depth " + this.searchDepth + " on " + this.threadCount + " threads";
+    }
+}
@@ -0,0 +1,87 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+public final class PawnHashTable {/*remembers the PawnStructure of a position keyed by its pawn key, the Zobrist key of
+    the pawns alone. Pawns move far less often than pieces, so sibling nodes and whole subtrees share a pawn key and the
+    pawn terms are worked out once instead of at every leaf.
+
+    One slot is four longs side by side: a check word, the two scores packed together and the two passed pawn masks.
+    The check word is the TranspositionTable's, XORed over all three data words, and a store always replaces*/
+
+    public static final int DEFAULT_SIZE_MB = 2;
+
+    private static final int LONGS_PER_SLOT = 4;
+    private static final int BYTES_PER_SLOT = LONGS_PER_SLOT * Long.BYTES;
+
+    private final long[] slots;
+    private final int slotMask;
+    private final int sizeInMegabytes;
+
+    private final ProbeCounter probes = new ProbeCounter();
+
+    public PawnHashTable(final int sizeInMegabytes) {
+        if (sizeInMegabytes < 1) {
+            throw new IllegalArgumentException("Pawn hash table needs at least 1 MB, got " + sizeInMegabytes);
+        }
+        final long budgetSlots = ((long) sizeInMegabytes << 20) / BYTES_PER_SLOT;
+        final int slotCount = Integer.highestOneBit((int) Math.min(budgetSlots, 1 << 24));
+        this.slots = new long[slotCount * LONGS_PER_SLOT];
+        this.slotMask = slotCount - 1;
+        this.sizeInMegabytes = sizeInMegabytes;
+    }
+
+    public PawnHashTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    public boolean probe(final long pawnKey, final PawnStructure into) {
+        //fills in the structure and returns true if the table knows these pawns
+        final int index = ((int) pawnKey & this.slotMask) * LONGS_PER_SLOT;
+        final long scores = this.slots[index + 1]; //every word read once, another thread may be writing the slot
+        final long whitePassed = this.slots[index + 2];
+        final long blackPassed = this.slots[index + 3];
+        if ((this.slots[index] ^ scores ^ whitePassed ^ blackPassed) != pawnKey) {
+            this.probes.miss();
+            return false;
+        }
+        this.probes.hit();
+        into.set((int) (scores >> 32), (int) scores, whitePassed, blackPassed);
+        return true;
+    }
+
+    public void store(final long pawnKey, final PawnStructure structure) {
+        /*an empty slot holds only zeros, which reads as the entry for a pawn key of 0, no pawns at all, and that entry
+        is all zeros anyway*/
+        final int index = ((int) pawnKey & this.slotMask) * LONGS_PER_SLOT;
+        final long scores = ((long) structure.getMidgameScore() << 32) | (structure.getEndgameScore() & 0xFFFFFFFFL);
+        final long whitePassed = structure.getWhitePassedPawns();
+        final long blackPassed = structure.getBlackPassedPawns();
+        this.slots[index + 1] = scores;
+        this.slots[index + 2] = whitePassed;
+        this.slots[index + 3] = blackPassed;
+        this.slots[index] = pawnKey ^ scores ^ whitePassed ^ blackPassed;
+    }
+
+    public void clear() {
+        Arrays.fill(this.slots, 0L);
+        this.probes.reset();
+    }
+
+    public int getCapacity() {
+        return this.slots.length / LONGS_PER_SLOT;
+    }
+
+    public int getSizeInMegabytes() {
+        return this.sizeInMegabytes;
+    }
+
+    public ProbeCounter getProbes() {
+        return this.probes;
+    }
+
+    @Override
+    public String toString() {
+        return "pawn hash " + this.sizeInMegabytes + " MB (" + getCapacity() + " entries): " + this.probes;
+    }
+}
@@ -0,0 +1,122 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.BoardUtils;
+
+public final class PawnStructure {/*what the pawns alone say about a position: doubled and isolated pawns cost, passed
+    pawns earn more the further they have come, with a middlegame and an endgame score from white's side for the tapered
+    evaluator to blend. It also keeps the passed pawns of each side as bitboards for any term that wants to look at them
+    again. Only the two pawn bitboards go in, so the result can be cached under the pawn key.
+
+    An instance is a reusable holder that calculate or a pawn hash table probe fills in, it is not thread safe*/
+
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    //by the number of ranks the pawn has come from its own back rank
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 45, 70, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 75, 120, 0};
+
+    private static final long[] ADJACENT_FILES = initAdjacentFiles();
+    //the tiles in front of a pawn on its own and the neighbouring files, no enemy pawn there makes it a passed pawn
+    private static final long[] WHITE_FRONT_SPANS = initFrontSpans(true);
+    private static final long[] BLACK_FRONT_SPANS = initFrontSpans(false);
+
+    private int midgameScore;
+    private int endgameScore;
+    private long whitePassedPawns;
+    private long blackPassedPawns;
+
+    private static long[] initAdjacentFiles() {
+        final long[] masks = new long[BoardUtils.NUM_TILES_PER_ROW];
+        for (int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+            masks[file] = (file > 0 ? BitBoards.FILE_MASKS[file - 1] : 0L) |
+                          (file < BoardUtils.NUM_TILES_PER_ROW - 1 ? BitBoards.FILE_MASKS[file + 1] : 0L);
+        }
+        return masks;
+    }
+
+    private static long[] initFrontSpans(final boolean white) {
+        //white pawns walk towards row 0, black pawns towards row 7
+        final long[] spans = new long[BoardUtils.NUM_TILES];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+            final int file = tile % BoardUtils.NUM_TILES_PER_ROW;
+            final long files = BitBoards.FILE_MASKS[file] | ADJACENT_FILES[file];
+            for (int r = 0; r < BoardUtils.NUM_TILES_PER_ROW; r++) {
+                if (white ? r < row : r > row) {
+                    spans[tile] |= files & BitBoards.RANK_MASKS[r];
+                }
+            }
+        }
+        return spans;
+    }
+
+    public void calculate(final long whitePawns, final long blackPawns) {
+        int midgame = 0;
+        int endgame = 0;
+        for (int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+            final int doubled = Math.max(0, Long.bitCount(whitePawns & BitBoards.FILE_MASKS[file]) - 1) -
+                                Math.max(0, Long.bitCount(blackPawns & BitBoards.FILE_MASKS[file]) - 1);
+            midgame += doubled * DOUBLED_MIDGAME;
+            endgame += doubled * DOUBLED_ENDGAME;
+        }
+        long whitePassed = 0L;
+        long pawns = whitePawns;
+        while (pawns != 0) {
+            final int tile = Long.numberOfTrailingZeros(pawns);
+            if ((whitePawns & ADJACENT_FILES[tile % BoardUtils.NUM_TILES_PER_ROW]) == 0) {
+                midgame += ISOLATED_MIDGAME;
+                endgame += ISOLATED_ENDGAME;
+            }
+            if ((blackPawns & WHITE_FRONT_SPANS[tile]) == 0) {
+                final int advanced = BoardUtils.NUM_TILES_PER_ROW - 1 - tile / BoardUtils.NUM_TILES_PER_ROW;
+                midgame += PASSED_MIDGAME[advanced];
+                endgame += PASSED_ENDGAME[advanced];
+                whitePassed |= BitBoards.SQUARE_MASKS[tile];
+            }
+            pawns &= pawns - 1;
+        }
+        long blackPassed = 0L;
+        pawns = blackPawns;
+        while (pawns != 0) {
+            final int tile = Long.numberOfTrailingZeros(pawns);
+            if ((blackPawns & ADJACENT_FILES[tile % BoardUtils.NUM_TILES_PER_ROW]) == 0) {
+                midgame -= ISOLATED_MIDGAME;
+                endgame -= ISOLATED_ENDGAME;
+            }
+            if ((whitePawns & BLACK_FRONT_SPANS[tile]) == 0) {
+                final int advanced = tile / BoardUtils.NUM_TILES_PER_ROW;
+                midgame -= PASSED_MIDGAME[advanced];
+                endgame -= PASSED_ENDGAME[advanced];
+                blackPassed |= BitBoards.SQUARE_MASKS[tile];
+            }
+            pawns &= pawns - 1;
+        }
+        set(midgame, endgame, whitePassed, blackPassed);
+    }
+
+    void set(final int midgameScore, final int endgameScore, final long whitePassedPawns, final long blackPassedPawns) {
+        this.midgameScore = midgameScore;
+        this.endgameScore = endgameScore;
+        this.whitePassedPawns = whitePassedPawns;
+        this.blackPassedPawns = blackPassedPawns;
+    }
+
+    public int getMidgameScore() {
+        return this.midgameScore;
+    }
+
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    public long getWhitePassedPawns() {
+        return this.whitePassedPawns;
+    }
+
+    public long getBlackPassedPawns() {
+        return this.blackPassedPawns;
+    }
+}
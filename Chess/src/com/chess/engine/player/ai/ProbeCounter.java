@@ -0,0 +1,42 @@
+package com.chess.engine.player.ai;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ProbeCounter {/*hits and misses of a hash table that search threads probe at the same time, a
+    LongAdder per count so the threads do not fight over one counter on every probe*/
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public void hit() {
+        this.hits.increment();
+    }
+
+    public void miss() {
+        this.misses.increment();
+    }
+
+    public void reset() {
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public double getHitRate() {
+        final long hits = this.hits.sum();
+        final long probes = hits + this.misses.sum();
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d hitRate=%.1f%%", getHits(), getMisses(), getHitRate() * 100);
+    }
+}
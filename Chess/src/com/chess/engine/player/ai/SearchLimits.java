@@ -0,0 +1,121 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.SearchBoard;
+
+import java.util.concurrent.TimeUnit;
+
+public final class SearchLimits {/*how far and how long an iterative deepening search may go. Time comes in two limits:
+    the soft limit is looked at between iterations, once it has passed no new iteration is started, because the next
+    one would cost more than all the earlier ones together and would most likely be cut off anyway. The hard limit is
+    checked inside the search every few thousand nodes and stops it wherever it is, the move then comes from the last
+    completed iteration. A cancelled token stops the search the same way as the hard limit*/
+
+    public static final int MAX_DEPTH = SearchBoard.MAX_PLY / 2;
+
+    private static final long NO_LIMIT = -1;
+    private static final int DEFAULT_MOVES_TO_GO = 30; //moves the remaining clock is spread over when none is given
+
+    private final int maxDepth;
+    private final long softLimitNanos;
+    private final long hardLimitNanos;
+    private final CancellationToken cancellation;
+
+    private SearchLimits(final Builder builder) {
+        this.maxDepth = builder.maxDepth;
+        this.softLimitNanos = builder.softLimitNanos;
+        this.hardLimitNanos = builder.hardLimitNanos;
+        this.cancellation = builder.cancellation;
+    }
+
+    public static SearchLimits depth(final int maxDepth) {
+        return new Builder().setMaxDepth(maxDepth).build();
+    }
+
+    public SearchLimits withCancellation(final CancellationToken cancellation) {
+        //the same limits cancelled through another token
+        return new Builder().setMaxDepth(this.maxDepth).setTimeLimits(this.softLimitNanos, this.hardLimitNanos)
+                .setCancellation(cancellation).build();
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    public CancellationToken getCancellation() {
+        //null if nobody can cancel the search
+        return this.cancellation;
+    }
+
+    public boolean hasHardLimit() {
+        return this.hardLimitNanos != NO_LIMIT;
+    }
+
+    public long getHardLimitNanos() {
+        return this.hardLimitNanos;
+    }
+
+    public long getSoftLimitNanos() {
+        return this.softLimitNanos;
+    }
+
+    public boolean isSoftLimitReached(final long startNanos) {
+        return this.softLimitNanos != NO_LIMIT && System.nanoTime() - startNanos >= this.softLimitNanos;
+    }
+
+    public boolean isCancelled() {
+        return this.cancellation != null && this.cancellation.isCancelled();
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + this.maxDepth +
+               (this.softLimitNanos == NO_LIMIT ? "" : ", soft " + this.softLimitNanos / 1_000_000 + "ms") +
+               (this.hardLimitNanos == NO_LIMIT ? "" : ", hard " + this.hardLimitNanos / 1_000_000 + "ms");
+    }
+
+    public static class Builder {
+
+        private int maxDepth = MAX_DEPTH;
+        private long softLimitNanos = NO_LIMIT;
+        private long hardLimitNanos = NO_LIMIT;
+        private CancellationToken cancellation;
+
+        public Builder setMaxDepth(final int maxDepth) {
+            this.maxDepth = Math.max(1, Math.min(MAX_DEPTH, maxDepth));
+            return this;
+        }
+
+        public Builder setMoveTime(final long millis) {
+            /*a fixed time for this move: all of it is the hard limit, and an iteration started after half of it would
+            rarely finish in the other half*/
+            final long nanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, millis));
+            return setTimeLimits(nanos / 2, nanos);
+        }
+
+        public Builder setClock(final long timeLeftMillis, final long incrementMillis, final int movesToGo) {
+            /*a share of the clock plus most of the increment is the soft limit, a move that keeps getting deeper may
+            run on to several shares but never past a third of what is left, so one move cannot lose on time*/
+            final long timeLeft = Math.max(1, timeLeftMillis);
+            final int moves = movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO;
+            final long share = timeLeft / moves + Math.max(0, incrementMillis) * 3 / 4;
+            final long hard = Math.max(1, Math.min(share * 4, timeLeft / 3));
+            final long soft = Math.max(1, Math.min(share, hard));
+            return setTimeLimits(TimeUnit.MILLISECONDS.toNanos(soft), TimeUnit.MILLISECONDS.toNanos(hard));
+        }
+
+        public Builder setTimeLimits(final long softLimitNanos, final long hardLimitNanos) {
+            this.softLimitNanos = softLimitNanos;
+            this.hardLimitNanos = hardLimitNanos;
+            return this;
+        }
+
+        public Builder setCancellation(final CancellationToken cancellation) {
+            this.cancellation = cancellation;
+            return this;
+        }
+
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
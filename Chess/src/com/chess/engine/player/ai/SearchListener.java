@@ -0,0 +1,10 @@
+package com.chess.engine.player.ai;
+
+import java.util.List;
+
+public interface SearchListener {/*told about every iteration an iterative deepening search completes, on the thread
+    that runs the search, so a front end can report progress while the search goes on*/
+
+    void iterationCompleted(int depth, int score, long nodes, List<String> principalVariation);
+
+}
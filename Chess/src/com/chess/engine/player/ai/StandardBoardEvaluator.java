@@ -1,26 +1,59 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
-import com.chess.engine.pieces.Piece;
+import com.chess.engine.board.Mobility;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.player.Player;
 
-public final class StandardBoardEvaluator implements BoardEvaluator {
+public final class StandardBoardEvaluator implements BoardEvaluator {/*material and piece-square bonuses, mobility,
+    check and checkmate. In incremental mode the material and piece-square terms are the running score both boards keep
+    up to date move by move, which costs nothing at a leaf, otherwise they are summed over every piece. Both modes
+    give the same score. Mobility is counted from the attack tables, so it needs no move lists on either board*/
 
     private static final int CHECK_BONUS = 50;
     private static final int CHECK_MATE_BONUS = 10000;
     private static final int DEPTH_BONUS = 100;
     private static final int CASTLE_BONUS = 60;
+
+    private final boolean incremental;
+
+    public StandardBoardEvaluator() {
+        this(false);
+    }
+
+    public StandardBoardEvaluator(final boolean incremental) {
+        this.incremental = incremental;
+    }
+
     @Override
     public int evaluate(final Board board, final int depth) {
-        return scorePlayer(board, board.whitePlayer(), depth) -
+        final int pieceSquareScore = this.incremental ? board.getPieceSquareScore() :
+                                     PieceSquareTables.calculateScore(board);
+        return pieceSquareScore +
+               scorePlayer(board, board.whitePlayer(), depth) -
                scorePlayer(board, board.blackPlayer(), depth);
     }
 
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        //the same terms read straight off the search board, so search leaves need no immutable board
+        final int sideToMove = board.getSideToMove();
+        final boolean inCheck = board.isInCheck();
+        final boolean checkMated = inCheck && !board.hasLegalMove();
+        final int pieceSquareScore = this.incremental ? board.getPieceSquareScore() :
+                                     PieceSquareTables.calculateScore(board);
+        final int score = pieceSquareScore +
+                          Mobility.count(board, SearchBoard.WHITE) - Mobility.count(board, SearchBoard.BLACK);
+        final int sign = sideToMove == SearchBoard.WHITE ? 1 : -1;
+        //the side to move is the only one that can be in check, its opponent collects the check and checkmate bonuses
+        return score - sign * ((inCheck ? CHECK_BONUS : 0) + (checkMated ? CHECK_MATE_BONUS * depthBonus(depth) : 0));
+    }
+
     private int scorePlayer(final Board board,
                             final Player player,
                             final int depth) {
-        return pieceValue(player) +
-               mobility(player) +
+        return mobility(board, player) +
                check(player) +
                checkMate(player, depth) +
                castled(player);
@@ -42,15 +75,7 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return player.getOpponent().isInCheck() ? CHECK_BONUS : 0;
     }
 
-    private static int mobility(final Player player) {
-        return player.getLegalMoves().size();
-    }
-
-    private static int pieceValue(final Player player){
-        int pieceValueScore = 0;
-        for(final Piece piece: player.getActivePieces()){
-            pieceValueScore +=  piece.getPieceValue();
-        }
-        return pieceValueScore;
+    private static int mobility(final Board board, final Player player) {
+        return Mobility.count(board, player.getAlliance());
     }
 }
@@ -0,0 +1,250 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece;
+
+public final class TaperedBoardEvaluator implements BoardEvaluator {/*material and piece-square tables with a middlegame
+    and an endgame value for every piece on every tile, blended by how much material is left: the knights, bishops,
+    rooks and queens on the board make up the game phase, 24 at the start and 0 with only kings and pawns, and the
+    score slides from the middlegame value to the endgame one as the phase drops. A king that hides in the middlegame
+    wants the centre in the endgame, a pawn gets worth more the closer it is to promoting.
+
+    The tables live in two flat int arrays indexed by piece index * 64 + tile, black's entries flipped and negated when
+    they are built, so a call is a walk over the piece bitboards with two array reads per piece and no allocation.
+    It looks at nothing but the pieces, finding mates and stalemates is left to the search.
+
+    The pawn structure terms come from PawnStructure, looked up in a pawn hash table under the pawn key when one is
+    given. The table may be shared between threads, an evaluator may not, it reuses one PawnStructure for every call*/
+
+    private static final int[] MIDGAME_VALUES = {365, 0, 337, 82, 1025, 477}; //by Piece.PieceType ordinal
+    private static final int[] ENDGAME_VALUES = {297, 0, 281, 94, 936, 512};
+    private static final int[] PHASE_WEIGHTS = {1, 0, 1, 0, 4, 2};
+    private static final int MAX_PHASE = 24;
+
+    //written a8 first as white sees the board, the same numbering as the tile coordinates
+    private static final int[] MIDGAME_PAWN = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             98, 134,  61,  95,  68, 126,  34, -11,
+             -6,   7,  26,  31,  65,  56,  25, -20,
+            -14,  13,   6,  21,  23,  12,  17, -23,
+            -27,  -2,  -5,  12,  17,   6,  10, -25,
+            -26,  -4,  -4, -10,   3,   3,  33, -12,
+            -35,  -1, -20, -23, -15,  24,  38, -22,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] ENDGAME_PAWN = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+            178, 173, 158, 134, 147, 132, 165, 187,
+             94, 100,  85,  67,  56,  53,  82,  84,
+             32,  24,  13,   5,  -2,   4,  17,  17,
+             13,   9,  -3,  -7,  -7,  -8,   3,  -1,
+              4,   7,  -6,   1,   0,  -5,  -1,  -8,
+             13,   8,   8,  10,  13,   0,   2,  -7,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] MIDGAME_KNIGHT = {
+           -167, -89, -34, -49,  61, -97, -15,-107,
+            -73, -41,  72,  36,  23,  62,   7, -17,
+            -47,  60,  37,  65,  84, 129,  73,  44,
+             -9,  17,  19,  53,  37,  69,  18,  22,
+            -13,   4,  16,  13,  28,  19,  21,  -8,
+            -23,  -9,  12,  10,  19,  17,  25, -16,
+            -29, -53, -12,  -3,  -1,  18, -14, -19,
+           -105, -21, -58, -33, -17, -28, -19, -23};
+    private static final int[] ENDGAME_KNIGHT = {
+            -58, -38, -13, -28, -31, -27, -63, -99,
+            -25,  -8, -25,  -2,  -9, -25, -24, -52,
+            -24, -20,  10,   9,  -1,  -9, -19, -41,
+            -17,   3,  22,  22,  22,  11,   8, -18,
+            -18,  -6,  16,  25,  16,  17,   4, -18,
+            -23,  -3,  -1,  15,  10,  -3, -20, -22,
+            -42, -20, -10,  -5,  -2, -20, -23, -44,
+            -29, -51, -23, -15, -22, -18, -50, -64};
+    private static final int[] MIDGAME_BISHOP = {
+            -29,   4, -82, -37, -25, -42,   7,  -8,
+            -26,  16, -18, -13,  30,  59,  18, -47,
+            -16,  37,  43,  40,  35,  50,  37,  -2,
+             -4,   5,  19,  50,  37,  37,   7,  -2,
+             -6,  13,  13,  26,  34,  12,  10,   4,
+              0,  15,  15,  15,  14,  27,  18,  10,
+              4,  15,  16,   0,   7,  21,  33,   1,
+            -33,  -3, -14, -21, -13, -12, -39, -21};
+    private static final int[] ENDGAME_BISHOP = {
+            -14, -21, -11,  -8,  -7,  -9, -17, -24,
+             -8,  -4,   7, -12,  -3, -13,  -4, -14,
+              2,  -8,   0,  -1,  -2,   6,   0,   4,
+             -3,   9,  12,   9,  14,  10,   3,   2,
+             -6,   3,  13,  19,   7,  10,  -3,  -9,
+            -12,  -3,   8,  10,  13,   3,  -7, -15,
+            -14, -18,  -7,  -1,   4,  -9, -15, -27,
+            -23,  -9, -23,  -5,  -9, -16,  -5, -17};
+    private static final int[] MIDGAME_ROOK = {
+             32,  42,  32,  51,  63,   9,  31,  43,
+             27,  32,  58,  62,  80,  67,  26,  44,
+             -5,  19,  26,  36,  17,  45,  61,  16,
+            -24, -11,   7,  26,  24,  35,  -8, -20,
+            -36, -26, -12,  -1,   9,  -7,   6, -23,
+            -45, -25, -16, -17,   3,   0,  -5, -33,
+            -44, -16, -20,  -9,  -1,  11,  -6, -71,
+            -19, -13,   1,  17,  16,   7, -37, -26};
+    private static final int[] ENDGAME_ROOK = {
+             13,  10,  18,  15,  12,  12,   8,   5,
+             11,  13,  13,  11,  -3,   3,   8,   3,
+              7,   7,   7,   5,   4,  -3,  -5,  -3,
+              4,   3,  13,   1,   2,   1,  -1,   2,
+              3,   5,   8,   4,  -5,  -6,  -8, -11,
+             -4,   0,  -5,  -1,  -7, -12,  -8, -16,
+             -6,  -6,   0,   2,  -9,  -9, -11,  -3,
+             -9,   2,   3,  -1,  -5, -13,   4, -20};
+    private static final int[] MIDGAME_QUEEN = {
+            -28,   0,  29,  12,  59,  44,  43,  45,
+            -24, -39,  -5,   1, -16,  57,  28,  54,
+            -13, -17,   7,   8,  29,  56,  47,  57,
+            -27, -27, -16, -16,  -1,  17,  -2,   1,
+             -9, -26,  -9, -10,  -2,  -4,   3,  -3,
+            -14,   2, -11,  -2,  -5,   2,  14,   5,
+            -35,  -8,  11,   2,   8,  15,  -3,   1,
+             -1, -18,  -9,  10, -15, -25, -31, -50};
+    private static final int[] ENDGAME_QUEEN = {
+             -9,  22,  22,  27,  27,  19,  10,  20,
+            -17,  20,  32,  41,  58,  25,  30,   0,
+            -20,   6,   9,  49,  47,  35,  19,   9,
+              3,  22,  24,  45,  57,  40,  57,  36,
+            -18,  28,  19,  47,  31,  34,  39,  23,
+            -16, -27,  15,   6,   9,  17,  10,   5,
+            -22, -23, -30, -16, -16, -23, -36, -32,
+            -33, -28, -22, -43,  -5, -32, -20, -41};
+    private static final int[] MIDGAME_KING = {
+            -65,  23,  16, -15, -56, -34,   2,  13,
+             29,  -1, -20,  -7,  -8,  -4, -38, -29,
+             -9,  24,   2, -16, -20,   6,  22, -22,
+            -17, -20, -12, -27, -30, -25, -14, -36,
+            -49,  -1, -27, -39, -46, -44, -33, -51,
+            -14, -14, -22, -46, -44, -30, -15, -27,
+              1,   7,  -8, -64, -43, -16,   9,   8,
+            -15,  36,  12, -54,   8, -28,  24,  14};
+    private static final int[] ENDGAME_KING = {
+            -74, -35, -18, -18, -11,  15,   4, -17,
+            -12,  17,  14,  17,  17,  38,  23,  11,
+             10,  17,  23,  15,  20,  45,  44,  13,
+             -8,  22,  24,  27,  26,  33,  26,   3,
+            -18,  -4,  21,  24,  27,  23,   9, -11,
+            -19,  -3,  11,  21,  23,  16,   7,  -9,
+            -27, -11,   4,  13,  14,   4,  -5, -17,
+            -53, -34, -21, -11, -28, -14, -24, -43};
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values(); //values() copies on every call
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final int NUM_PIECE_TYPES = PIECE_TYPES.length;
+    private static final int[] MIDGAME_SCORES = initScores(true);
+    private static final int[] ENDGAME_SCORES = initScores(false);
+
+    private final PawnHashTable pawnTable;
+    private final PawnStructure pawnStructure = new PawnStructure();
+
+    public TaperedBoardEvaluator() {
+        this(null);
+    }
+
+    public TaperedBoardEvaluator(final PawnHashTable pawnTable) {
+        //null works the pawn structure out on every call
+        this.pawnTable = pawnTable;
+    }
+
+    private static int[] initScores(final boolean midgame) {
+        final int[] scores = new int[2 * NUM_PIECE_TYPES * BoardUtils.NUM_TILES];
+        for (final Piece.PieceType pieceType : PIECE_TYPES) {
+            final int type = pieceType.ordinal();
+            final int[] table = tableFor(pieceType, midgame);
+            final int value = midgame ? MIDGAME_VALUES[type] : ENDGAME_VALUES[type];
+            for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                scores[BitBoards.pieceIndex(Alliance.WHITE, pieceType) * BoardUtils.NUM_TILES + tile] =
+                        value + table[tile];
+                scores[BitBoards.pieceIndex(Alliance.BLACK, pieceType) * BoardUtils.NUM_TILES + tile] =
+                        -(value + table[tile ^ 56]);
+            }
+        }
+        return scores;
+    }
+
+    private static int[] tableFor(final Piece.PieceType pieceType, final boolean midgame) {
+        switch (pieceType) {
+            case PAWN:   return midgame ? MIDGAME_PAWN : ENDGAME_PAWN;
+            case KNIGHT: return midgame ? MIDGAME_KNIGHT : ENDGAME_KNIGHT;
+            case BISHOP: return midgame ? MIDGAME_BISHOP : ENDGAME_BISHOP;
+            case ROOK:   return midgame ? MIDGAME_ROOK : ENDGAME_ROOK;
+            case QUEEN:  return midgame ? MIDGAME_QUEEN : ENDGAME_QUEEN;
+            default:     return midgame ? MIDGAME_KING : ENDGAME_KING;
+        }
+    }
+
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (final Piece.PieceType pieceType : PIECE_TYPES) {
+            for (final Alliance alliance : ALLIANCES) {
+                final int offset = BitBoards.pieceIndex(alliance, pieceType) * BoardUtils.NUM_TILES;
+                long pieces = board.getPieceBitboard(alliance, pieceType);
+                phase += PHASE_WEIGHTS[pieceType.ordinal()] * Long.bitCount(pieces);
+                while (pieces != 0) {
+                    final int tile = Long.numberOfTrailingZeros(pieces);
+                    midgame += MIDGAME_SCORES[offset + tile];
+                    endgame += ENDGAME_SCORES[offset + tile];
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        final PawnStructure pawns = pawnStructure(board.getPawnKey(),
+                board.getPieceBitboard(Alliance.WHITE, Piece.PieceType.PAWN),
+                board.getPieceBitboard(Alliance.BLACK, Piece.PieceType.PAWN));
+        return blend(midgame + pawns.getMidgameScore(), endgame + pawns.getEndgameScore(), phase);
+    }
+
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        //the search board's piece codes are the same piece indices, so the tables are read the same way
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int piece = 0; piece < 2 * NUM_PIECE_TYPES; piece++) {
+            final int offset = piece * BoardUtils.NUM_TILES;
+            long pieces = board.getBitboard(SearchBoard.pieceSide(piece), SearchBoard.pieceType(piece));
+            phase += PHASE_WEIGHTS[SearchBoard.pieceType(piece)] * Long.bitCount(pieces);
+            while (pieces != 0) {
+                final int tile = Long.numberOfTrailingZeros(pieces);
+                midgame += MIDGAME_SCORES[offset + tile];
+                endgame += ENDGAME_SCORES[offset + tile];
+                pieces &= pieces - 1;
+            }
+        }
+        final PawnStructure pawns = pawnStructure(board.getPawnKey(),
+                board.getBitboard(SearchBoard.WHITE, SearchBoard.PAWN),
+                board.getBitboard(SearchBoard.BLACK, SearchBoard.PAWN));
+        return blend(midgame + pawns.getMidgameScore(), endgame + pawns.getEndgameScore(), phase);
+    }
+
+    private PawnStructure pawnStructure(final long pawnKey, final long whitePawns, final long blackPawns) {
+        if (this.pawnTable != null && this.pawnTable.probe(pawnKey, this.pawnStructure)) {
+            return this.pawnStructure;
+        }
+        this.pawnStructure.calculate(whitePawns, blackPawns);
+        if (this.pawnTable != null) {
+            this.pawnTable.store(pawnKey, this.pawnStructure);
+        }
+        return this.pawnStructure;
+    }
+
+    public PawnHashTable getPawnTable() {
+        return this.pawnTable;
+    }
+
+    private static int blend(final int midgame, final int endgame, final int phase) {
+        //promoted pieces can push the phase past the start position's, which still counts as a full middlegame
+        final int midgamePhase = Math.min(phase, MAX_PHASE);
+        return (midgame * midgamePhase + endgame * (MAX_PHASE - midgamePhase)) / MAX_PHASE;
+    }
+}
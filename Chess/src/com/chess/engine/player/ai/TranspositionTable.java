@@ -0,0 +1,186 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class TranspositionTable {/*remembers what the search already found out about a position, keyed by the board's
+    Zobrist key. The table is a fixed power-of-two number of buckets, each bucket has two slots: the first keeps the entry
+    searched the deepest, the second is always replaced, so deep results survive and fresh ones still get a place.
+
+    One table can be shared by several search threads without locks: a slot stores the key XORed with the data, a probe
+    only accepts the slot if XORing the two back gives its own key. Two threads writing the same slot at once can leave
+    the key of one entry next to the data of the other, that slot then simply fails the check and counts as a miss*/
+
+    public static final int DEFAULT_SIZE_MB = 64;
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2; //the search failed high, the real score is at least this
+    public static final int UPPER_BOUND = 3; //the search failed low, the real score is at most this
+
+    public static final long NO_ENTRY = 0L; //bound is never 0 in a stored entry, so a stored entry is never 0 either
+
+    private static final int SLOTS_PER_BUCKET = 2;
+    private static final int BYTES_PER_SLOT = 16; //one long for the key and one for the packed data
+
+    /*layout of the packed data long: bits 0-18 best move, bits 19-20 bound, bits 21-28 depth, bits 32-63 score*/
+    private static final int MOVE_BITS = 19;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+    private static final int BOUND_SHIFT = 19;
+    private static final int DEPTH_SHIFT = 21;
+    private static final int SCORE_SHIFT = 32;
+    private static final int MAX_DEPTH = 0xFF;
+
+    private long[] keys;
+    private long[] entries;
+    private int bucketMask;
+    private int sizeInMegabytes;
+
+    private final ProbeCounter probes = new ProbeCounter();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    public TranspositionTable(final int sizeInMegabytes) {
+        resize(sizeInMegabytes);
+    }
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    public void resize(final int sizeInMegabytes) {
+        if (sizeInMegabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB, got " + sizeInMegabytes);
+        }
+        //round down to a power of two number of buckets so the index is a mask instead of a modulo
+        final long budgetBuckets = ((long) sizeInMegabytes << 20) / (SLOTS_PER_BUCKET * BYTES_PER_SLOT);
+        final int buckets = Integer.highestOneBit((int) Math.min(budgetBuckets, 1 << 26));
+        this.keys = new long[buckets * SLOTS_PER_BUCKET];
+        this.entries = new long[buckets * SLOTS_PER_BUCKET];
+        this.bucketMask = buckets - 1;
+        this.sizeInMegabytes = sizeInMegabytes;
+        resetStatistics();
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        Arrays.fill(this.entries, 0L);
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        this.probes.reset();
+        this.collisions.reset();
+        this.stores.reset();
+        this.overwrites.reset();
+    }
+
+    private int bucketIndex(final long key) {
+        //the low bits of the key pick the bucket, the full key stored in the slot tells positions in one bucket apart
+        return ((int) key & this.bucketMask) * SLOTS_PER_BUCKET;
+    }
+
+    public long probe(final long key) {
+        final int index = bucketIndex(key);
+        boolean occupied = false;
+        for (int slot = index; slot < index + SLOTS_PER_BUCKET; slot++) {
+            final long entry = this.entries[slot]; //read once, another thread may overwrite the slot while we look
+            if (entry == NO_ENTRY) {
+                continue;
+            }
+            if ((this.keys[slot] ^ entry) == key) {
+                this.probes.hit();
+                return entry;
+            }
+            occupied = true;
+        }
+        this.probes.miss();
+        if (occupied) {
+            this.collisions.increment(); //the bucket holds other positions that share our index
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(final long key, final int depth, final int bound, final int score, final int move) {
+        final int index = bucketIndex(key);
+        final long entry = pack(depth, bound, score, move);
+        this.stores.increment();
+        //the depth-preferred slot takes the entry if it is the same position or if we searched at least as deep
+        final long deepEntry = this.entries[index];
+        final boolean samePosition = (this.keys[index] ^ deepEntry) == key;
+        final int slot = deepEntry == NO_ENTRY || samePosition || depth >= getDepth(deepEntry) ? index : index + 1;
+        final long oldEntry = this.entries[slot];
+        if (oldEntry != NO_ENTRY && (this.keys[slot] ^ oldEntry) != key) {
+            this.overwrites.increment();
+        }
+        this.entries[slot] = entry;
+        this.keys[slot] = key ^ entry;
+    }
+
+    private static long pack(final int depth, final int bound, final int score, final int move) {
+        final long clampedDepth = Math.max(0, Math.min(depth, MAX_DEPTH));
+        return ((long) score << SCORE_SHIFT) |
+               (clampedDepth << DEPTH_SHIFT) |
+               ((long) bound << BOUND_SHIFT) |
+               (move & MOVE_MASK);
+    }
+
+    public static int getMove(final long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    public static int getBound(final long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    public static int getDepth(final long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    public static int getScore(final long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+
+    public int getCapacity() {
+        return this.entries.length;
+    }
+
+    public int getSizeInMegabytes() {
+        return this.sizeInMegabytes;
+    }
+
+    public ProbeCounter getProbes() {
+        return this.probes;
+    }
+
+    public long getCollisions() {
+        return this.collisions.sum();
+    }
+
+    public long getStores() {
+        return this.stores.sum();
+    }
+
+    public long getOverwrites() {
+        return this.overwrites.sum();
+    }
+
+    public int getFillPermille() {
+        //samples the first thousand slots, good enough to tell whether the table is too small
+        final int sample = Math.min(1000, this.entries.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (this.entries[i] != NO_ENTRY) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TT %d MB (%d entries): %s collisions=%d stores=%d overwrites=%d fill=%d/1000",
+                this.sizeInMegabytes, getCapacity(), this.probes, getCollisions(), getStores(), getOverwrites(),
+                getFillPermille());
+    }
+}
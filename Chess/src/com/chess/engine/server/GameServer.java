@@ -0,0 +1,222 @@
+package com.chess.engine.server;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveDecoder;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+public final class GameServer implements Closeable {/*puts a GameService on a local socket. The protocol is one JSON
+    object per line each way, every request gets exactly one reply on the same connection:
+        {"cmd":"new"}                          {"ok":true,"game":1,"fen":"...","status":"ONGOING"}
+        {"cmd":"new","fen":"..."}              starts from that position instead
+        {"cmd":"move","game":1,"move":"e2e4"}  plays a client move, SAN or UCI
+        {"cmd":"go","game":1}                  the engine moves, the reply carries "move" in UCI and "micros"
+        {"cmd":"go","game":1,"movetime":200}   within 200ms, "depth" bounds the search the same way
+        {"cmd":"state","game":1}               the position, the status and the moves so far
+        {"cmd":"close","game":1}               forgets the game
+        {"cmd":"stats"}                        open games and the percentiles of the move latency
+    A failed request gets {"ok":false,"error":"..."}. Any connection may drive any game, a game only refuses a move or
+    a go while its previous go is still searching.
+
+    Every connection is served on the service's session executor, so waiting for the next line or for a search costs
+    a virtual thread and not a core*/
+
+    private final GameService service;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessionExecutor = GameService.newSessionExecutor();
+
+    public GameServer(final GameService service, final int port) throws IOException {
+        //binds to the loopback address only, port 0 picks a free port
+        this.service = service;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    }
+
+    public static void main(final String[] args) throws IOException {
+        //GameServer [port] [depth] [search threads]
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : 7878;
+        final int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        final TranspositionTable sharedTable = new TranspositionTable(256);
+        final EvaluationCache sharedCache = new EvaluationCache(new StandardBoardEvaluator(true), 1 << 20);
+        final GameService service = new GameService(() -> new AlphaBeta(depth, sharedTable, 0, sharedCache), threads);
+        final GameServer server = new GameServer(service, port);
+        System.out.println("serving games on " + server.getPort() + ", depth " + depth + ", " + threads +
+                           " search threads");
+        server.acceptConnections();
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    public void start() {
+        //accepts connections in the background until close
+        this.sessionExecutor.execute(this::acceptConnections);
+    }
+
+    private void acceptConnections() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                final Socket socket = this.serverSocket.accept();
+                this.sessionExecutor.execute(() -> serve(socket));
+            } catch (final SocketException e) {
+                return; //closed
+            } catch (final IOException e) {
+                System.err.println("accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        final MoveDecoder moveDecoder = new MoveDecoder(); //per connection, a decoder is not thread safe
+        try (final Socket connection = socket;
+             final BufferedReader in = new BufferedReader(
+                     new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             final Writer out = new BufferedWriter(
+                     new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            connection.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                out.write(handle(line, moveDecoder));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (final IOException e) {
+            //the client went away, its games stay until closed
+        }
+    }
+
+    String handle(final String line, final MoveDecoder moveDecoder) {
+        try {
+            final Map<String, String> request = Json.parseObject(line);
+            final String command = request.getOrDefault("cmd", "");
+            switch (command) {
+                case "new": {
+                    final String fen = request.get("fen");
+                    final GameSession session = this.service.newGame(fen != null ?
+                            FenUtils.createGameFromFEN(fen) : Board.createStandardBoard());
+                    return describe(session);
+                }
+                case "move": {
+                    final GameSession session = session(request);
+                    final Move move = moveDecoder.decode(session.getBoard(), request.getOrDefault("move", ""));
+                    if (move == null || !this.service.play(session, move)) {
+                        return error("move " + request.get("move") + " cannot be played now");
+                    }
+                    return describe(session);
+                }
+                case "go": {
+                    final GameSession session = session(request);
+                    final long start = System.nanoTime();
+                    final Move move = this.service.think(session, limits(request)).get();
+                    final Board board = session.getBoard();
+                    return Json.object("ok", true, "game", session.getId(), "move", MoveDecoder.toUci(move),
+                            "fen", FenUtils.createFENFromGame(board), "status", session.getStatus().name(),
+                            "micros", (System.nanoTime() - start) / 1000);
+                }
+                case "state": {
+                    final GameSession session = session(request);
+                    final StringBuilder moves = new StringBuilder();
+                    for (final Move move : session.getMoveLog()) {
+                        moves.append(moves.length() == 0 ? "" : " ").append(MoveDecoder.toUci(move));
+                    }
+                    return Json.object("ok", true, "game", session.getId(),
+                            "fen", FenUtils.createFENFromGame(session.getBoard()),
+                            "status", session.getStatus().name(), "moves", moves.toString());
+                }
+                case "close":
+                    return this.service.closeGame(gameId(request)) ? Json.object("ok", true) :
+                           error("no game " + request.get("game"));
+                case "stats": {
+                    final LatencyHistogram latency = this.service.getMoveLatency();
+                    return Json.object("ok", true, "open", this.service.getOpenGames(),
+                            "started", this.service.getGamesStarted(), "closed", this.service.getGamesClosed(),
+                            "moves", latency.getCount(), "p50_us", latency.getPercentileMicros(50),
+                            "p90_us", latency.getPercentileMicros(90), "p99_us", latency.getPercentileMicros(99),
+                            "max_us", latency.getPercentileMicros(100));
+                }
+                default:
+                    return error("unknown cmd " + command);
+            }
+        } catch (final ExecutionException e) {
+            return error(String.valueOf(e.getCause().getMessage()));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error("interrupted");
+        } catch (final IllegalArgumentException | IllegalStateException e) {
+            return error(e.getMessage());
+        }
+    }
+
+    private GameSession session(final Map<String, String> request) {
+        final GameSession session = this.service.getSession(gameId(request));
+        if (session == null) {
+            throw new IllegalArgumentException("no game " + request.get("game"));
+        }
+        return session;
+    }
+
+    private static SearchLimits limits(final Map<String, String> request) {
+        //null when the request sets no limit, the search then runs as the server was configured
+        final String depth = request.get("depth");
+        final String moveTime = request.get("movetime");
+        if (depth == null && moveTime == null) {
+            return null;
+        }
+        final SearchLimits.Builder limits = new SearchLimits.Builder();
+        if (depth != null) {
+            limits.setMaxDepth(Integer.parseInt(depth));
+        }
+        if (moveTime != null) {
+            limits.setMoveTime(Long.parseLong(moveTime));
+        }
+        return limits.build();
+    }
+
+    private static long gameId(final Map<String, String> request) {
+        final String game = request.get("game");
+        if (game == null) {
+            throw new IllegalArgumentException("game missing");
+        }
+        return Long.parseLong(game);
+    }
+
+    private static String describe(final GameSession session) {
+        return Json.object("ok", true, "game", session.getId(), "fen", FenUtils.createFENFromGame(session.getBoard()),
+                "status", session.getStatus().name());
+    }
+
+    private static String error(final String message) {
+        return Json.object("ok", false, "error", message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        this.sessionExecutor.shutdownNow();
+    }
+}
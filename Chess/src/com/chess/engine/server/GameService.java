@@ -0,0 +1,158 @@
+package com.chess.engine.server;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.CancellationToken;
+import com.chess.engine.player.ai.InterruptibleStrategy;
+import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.SearchLimits;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public final class GameService implements Closeable {/*hosts any number of games in one process. The games themselves
+    are cheap, a session is a board, a move log and a key history, what costs is thinking, so searches go to a fixed
+    pool of search threads, one per core by default, however many games are waiting. Every search thread builds its own
+    MoveStrategy once from the factory and reuses it for whichever game comes next, the search buffers are per thread
+    and not per game.
+
+    Everything that only waits, a connection reading its next request or waiting for a search to finish, belongs on the
+    session executor: virtual threads when the JDK has them, a cached pool of platform threads otherwise*/
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ExecutorService searchExecutor;
+    private final ThreadLocal<MoveStrategy> strategies;
+    private final LatencyHistogram moveLatency = new LatencyHistogram(); //from go to the move being played, queue included
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesClosed = new LongAdder();
+    private final int searchThreads;
+
+    public GameService(final Supplier<MoveStrategy> strategyFactory) {
+        this(strategyFactory, Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameService(final Supplier<MoveStrategy> strategyFactory, final int searchThreads) {
+        this.searchThreads = Math.max(1, searchThreads);
+        this.searchExecutor = Executors.newFixedThreadPool(this.searchThreads, daemon("game-search"));
+        this.strategies = ThreadLocal.withInitial(strategyFactory);
+    }
+
+    public static ExecutorService newSessionExecutor() {
+        /*one virtual thread per task on JDKs that have them, looked up reflectively so the code still builds and runs
+        on older JDKs, where a cached pool of daemon threads stands in*/
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(daemon("game-session"));
+        }
+    }
+
+    public GameSession newGame(final Board board) {
+        final GameSession session = new GameSession(this.nextId.getAndIncrement(), board);
+        this.sessions.put(session.getId(), session);
+        this.gamesStarted.increment();
+        return session;
+    }
+
+    public GameSession getSession(final long id) {
+        return this.sessions.get(id);
+    }
+
+    public boolean closeGame(final long id) {
+        //a search still running for the game is cancelled, its search thread is free for the next game right away
+        final GameSession session = this.sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        session.cancelSearch();
+        this.gamesClosed.increment();
+        return true;
+    }
+
+    public boolean play(final GameSession session, final Move move) {
+        //false if the move is illegal or the engine is still thinking about this game
+        return session.playIfIdle(move);
+    }
+
+    public CompletableFuture<Move> think(final GameSession session) {
+        return think(session, null);
+    }
+
+    public CompletableFuture<Move> think(final GameSession session, final SearchLimits limits) {
+        /*queues a search for the side to move and plays its move in the session once found. Completes with
+        Move.NULL_MOVE if the side to move has no move, and exceptionally if the session is already searching.
+        Limits bound the search in depth and time when the strategy is interruptible and let closing the game cancel
+        it, without limits the strategy searches as it was configured and a closed game only drops the move*/
+        final CancellationToken cancellation = new CancellationToken();
+        if (!session.startSearch(cancellation)) {
+            final CompletableFuture<Move> refused = new CompletableFuture<>();
+            refused.completeExceptionally(new IllegalStateException("Game " + session.getId() + " is already searching"));
+            return refused;
+        }
+        final long queued = System.nanoTime();
+        final Board board = session.getBoard();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                final MoveStrategy strategy = this.strategies.get();
+                final Move move = strategy instanceof InterruptibleStrategy && limits != null ?
+                        ((InterruptibleStrategy) strategy).execute(board, session.copyHistory(),
+                                limits.withCancellation(cancellation), null) :
+                        strategy.execute(board, session.copyHistory());
+                if (cancellation.isCancelled()) {
+                    return Move.NULL_MOVE; //the game was closed while the search ran
+                }
+                if (move != Move.NULL_MOVE) {
+                    session.play(move);
+                }
+                this.moveLatency.recordNanos(System.nanoTime() - queued);
+                return move;
+            } finally {
+                session.endSearch();
+            }
+        }, this.searchExecutor);
+    }
+
+    public int getOpenGames() {
+        return this.sessions.size();
+    }
+
+    public long getGamesStarted() {
+        return this.gamesStarted.sum();
+    }
+
+    public long getGamesClosed() {
+        return this.gamesClosed.sum();
+    }
+
+    public LatencyHistogram getMoveLatency() {
+        return this.moveLatency;
+    }
+
+    public int getSearchThreads() {
+        return this.searchThreads;
+    }
+
+    @Override
+    public void close() {
+        this.searchExecutor.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(final String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.chess.engine.server;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.CancellationToken;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class GameSession {/*one game hosted by the GameService: the immutable board it stands at, the moves that
+    led there and the position history its searches need for repetitions. Nothing in here is static, so any number of
+    sessions live side by side. A session is guarded by its own lock, the service makes sure only one search runs for it
+    at a time*/
+
+    public enum Status {
+        ONGOING, CHECKMATE, STALEMATE, REPETITION, FIFTY_MOVES
+    }
+
+    private final long id;
+    private final List<Move> moveLog = new ArrayList<>();
+    private final PositionHistory history;
+    private Board board;
+    private CancellationToken searchCancellation; //set while a search runs for this game
+
+    GameSession(final long id, final Board board) {
+        this.id = id;
+        this.board = board;
+        this.history = new PositionHistory(board);
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    public synchronized Board getBoard() {
+        return this.board;
+    }
+
+    public synchronized List<Move> getMoveLog() {
+        return Collections.unmodifiableList(new ArrayList<>(this.moveLog));
+    }
+
+    public synchronized Status getStatus() {
+        if (this.board.currentPlayer().isInCheckMate()) {
+            return Status.CHECKMATE;
+        }
+        if (this.board.currentPlayer().isInStaleMate()) {
+            return Status.STALEMATE;
+        }
+        if (this.history.isThreefold()) {
+            return Status.REPETITION;
+        }
+        return this.board.getHalfMoveClock() >= 100 ? Status.FIFTY_MOVES : Status.ONGOING;
+    }
+
+    synchronized boolean play(final Move move) {
+        //false if the move is illegal here, the game then stays where it was
+        final MoveTransition transition = this.board.currentPlayer().makeMove(move);
+        if (!transition.getMoveStatus().isDone()) {
+            return false;
+        }
+        this.board = transition.getTransitionBoard();
+        this.moveLog.add(move);
+        this.history.push(this.board);
+        return true;
+    }
+
+    synchronized boolean playIfIdle(final Move move) {
+        //a move sent by a client, refused while a search still works on the current position
+        return this.searchCancellation == null && play(move);
+    }
+
+    synchronized boolean startSearch(final CancellationToken cancellation) {
+        //a session thinks about one move at a time, a second go while the first runs is refused
+        if (this.searchCancellation != null) {
+            return false;
+        }
+        this.searchCancellation = cancellation;
+        return true;
+    }
+
+    synchronized void endSearch() {
+        this.searchCancellation = null;
+    }
+
+    synchronized void cancelSearch() {
+        if (this.searchCancellation != null) {
+            this.searchCancellation.cancel();
+        }
+    }
+
+    synchronized PositionHistory copyHistory() {
+        //the search reads its own copy, the session may take moves again as soon as the search returns
+        return new PositionHistory(this.history);
+    }
+}
@@ -0,0 +1,134 @@
+package com.chess.engine.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class Json {/*the little JSON the server protocol needs: one flat object per line, values are strings, numbers
+    or booleans. Nested objects and arrays are not part of the protocol and are rejected*/
+
+    private Json() {
+        throw new RuntimeException("Not Instantiable");
+    }
+
+    static Map<String, String> parseObject(final String line) {
+        //every value comes back as its text, numbers and booleans unquoted
+        final Map<String, String> fields = new LinkedHashMap<>();
+        int index = skipSpaces(line, 0);
+        expect(line, index++, '{');
+        index = skipSpaces(line, index);
+        if (index < line.length() && line.charAt(index) == '}') {
+            return fields;
+        }
+        while (true) {
+            index = skipSpaces(line, index);
+            expect(line, index, '"');
+            final StringBuilder key = new StringBuilder();
+            index = readString(line, index + 1, key);
+            index = skipSpaces(line, index);
+            expect(line, index++, ':');
+            index = skipSpaces(line, index);
+            final StringBuilder value = new StringBuilder();
+            if (index < line.length() && line.charAt(index) == '"') {
+                index = readString(line, index + 1, value);
+            } else {
+                while (index < line.length() && ",} \t".indexOf(line.charAt(index)) < 0) {
+                    final char c = line.charAt(index++);
+                    if (c == '{' || c == '[') {
+                        throw new IllegalArgumentException("Nested values are not supported: " + line);
+                    }
+                    value.append(c);
+                }
+            }
+            fields.put(key.toString(), value.toString());
+            index = skipSpaces(line, index);
+            if (index < line.length() && line.charAt(index) == ',') {
+                index++;
+                continue;
+            }
+            expect(line, index, '}');
+            return fields;
+        }
+    }
+
+    static String object(final Object... keysAndValues) {
+        //object("ok", true, "game", 7) gives {"ok":true,"game":7}, strings are quoted, numbers and booleans are not
+        final StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendString(json, String.valueOf(keysAndValues[i]));
+            json.append(':');
+            final Object value = keysAndValues[i + 1];
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else if (value == null) {
+                json.append("null");
+            } else {
+                appendString(json, value.toString());
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static int readString(final String line, int index, final StringBuilder out) {
+        while (index < line.length()) {
+            final char c = line.charAt(index++);
+            if (c == '"') {
+                return index;
+            }
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (index >= line.length()) {
+                break;
+            }
+            final char escaped = line.charAt(index++);
+            switch (escaped) {
+                case 'n': out.append('\n'); break;
+                case 't': out.append('\t'); break;
+                case 'r': out.append('\r'); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'u':
+                    if (index + 4 > line.length()) {
+                        throw new IllegalArgumentException("Bad unicode escape: " + line);
+                    }
+                    out.append((char) Integer.parseInt(line.substring(index, index + 4), 16));
+                    index += 4;
+                    break;
+                default: out.append(escaped); break;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string: " + line);
+    }
+
+    private static void appendString(final StringBuilder json, final String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static int skipSpaces(final String line, int index) {
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static void expect(final String line, final int index, final char expected) {
+        if (index >= line.length() || line.charAt(index) != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at " + index + ": " + line);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.chess.engine.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram {/*counts latencies in microseconds into log-linear buckets, every power of two is
+    cut into 32 buckets, so a percentile read back is within about 3% of the real value however many samples there are.
+    Recording is a single atomic increment, any number of threads may record while another one reads percentiles*/
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; //2^40 microseconds is about twelve days, anything longer is clamped
+    private static final int NUM_BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+
+    public void recordNanos(final long nanos) {
+        record(Math.max(0, nanos / 1000));
+    }
+
+    public void record(final long micros) {
+        this.counts.incrementAndGet(bucketOf(micros));
+        this.samples.increment();
+        this.totalMicros.add(micros);
+    }
+
+    public long getCount() {
+        return this.samples.sum();
+    }
+
+    public double getMeanMicros() {
+        final long count = getCount();
+        return count == 0 ? 0.0 : (double) this.totalMicros.sum() / count;
+    }
+
+    public long getPercentileMicros(final double percentile) {
+        //the lowest value of the bucket holding the sample at that rank, 0 when nothing was recorded
+        final long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= rank) {
+                return valueOf(bucket);
+            }
+        }
+        return valueOf(NUM_BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+        this.samples.reset();
+        this.totalMicros.reset();
+    }
+
+    private static int bucketOf(final long micros) {
+        if (micros < 2 * SUB_BUCKETS) {
+            return (int) micros; //small values get a bucket each
+        }
+        final int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(micros));
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final long subBucket = Math.min(SUB_BUCKETS - 1, (micros >> shift) - SUB_BUCKETS);
+        return (shift + 1) * SUB_BUCKETS + (int) subBucket;
+    }
+
+    private static long valueOf(final int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fms p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms", getCount(),
+                getMeanMicros() / 1000, getPercentileMicros(50) / 1000.0, getPercentileMicros(90) / 1000.0,
+                getPercentileMicros(99) / 1000.0, getPercentileMicros(100) / 1000.0);
+    }
+}
@@ -0,0 +1,348 @@
+package com.chess.engine.uci;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveDecoder;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.CancellationToken;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.InterruptibleStrategy;
+import com.chess.engine.player.ai.LazySmp;
+import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.SearchListener;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+public final class UciEngine {/*speaks the Universal Chess Interface on stdin/stdout, so the engine runs under tournament
+    managers and batch scripts without the Swing table, e.g.
+        java com.chess.engine.uci.UciEngine
+
+    Commands are read on the calling thread and every go runs on a search thread of its own, which keeps stop and
+    isready answered while the engine thinks. The search is whatever MoveStrategy the engine drives: an
+    InterruptibleStrategy honours depth, time limits and stop and reports every iteration as an info line, any other
+    strategy simply plays the move its execute returns*/
+
+    public static final String ENGINE_NAME = "Chess";
+
+    private static final long MOVE_OVERHEAD_MS = 50; //kept back for the GUI and the pipe, a late bestmove loses the game
+    private static final int MAX_HASH_MB = 1024;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final TranspositionTable transpositionTable;
+    private final EvaluationCache evaluationCache;
+    private final MoveDecoder moveDecoder = new MoveDecoder();
+    private final ExecutorService searchThread = Executors.newSingleThreadExecutor(daemon("uci-search"));
+    private final boolean ownsStrategy;
+
+    private MoveStrategy strategy;
+    private int threadCount = 1;
+    private Board board = FenUtils.createGameFromFEN(FenUtils.STANDARD_FEN);
+    private PositionHistory history = new PositionHistory(this.board); //the positions of the moves list, for repetitions
+    private Future<?> runningSearch;
+    private CancellationToken cancellation;
+    private CountDownLatch stopCommand;
+
+    public UciEngine(final BufferedReader input, final PrintStream output) {
+        /*drives an alpha-beta search of its own, the Hash and Threads options resize its table and switch between the
+        serial search and lazy SMP*/
+        this.input = input;
+        this.output = output;
+        this.transpositionTable = new TranspositionTable();
+        this.evaluationCache = new EvaluationCache(new StandardBoardEvaluator(true), 1 << 18);
+        this.strategy = new AlphaBeta(SearchLimits.MAX_DEPTH, this.transpositionTable, 0, this.evaluationCache);
+        this.ownsStrategy = true;
+    }
+
+    public UciEngine(final MoveStrategy strategy, final BufferedReader input, final PrintStream output) {
+        //drives the given strategy as it is, the Hash and Threads options are then ignored
+        this.input = input;
+        this.output = output;
+        this.transpositionTable = null;
+        this.evaluationCache = null;
+        this.strategy = strategy;
+        this.ownsStrategy = false;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        new UciEngine(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+    }
+
+    public void run() throws IOException {
+        //reads commands until quit or the end of the input
+        String line;
+        while ((line = this.input.readLine()) != null) {
+            final String[] tokens = line.trim().split("\\s+");
+            if (tokens[0].equals("quit")) {
+                break;
+            }
+            handle(tokens);
+        }
+        stopSearch();
+        awaitSearch();
+        this.searchThread.shutdownNow();
+        if (this.ownsStrategy && this.strategy instanceof LazySmp) {
+            ((LazySmp) this.strategy).shutdown();
+        }
+    }
+
+    private void handle(final String[] tokens) {
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + ENGINE_NAME);
+                if (this.ownsStrategy) {
+                    send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB + " min 1 max " +
+                         MAX_HASH_MB);
+                    send("option name Threads type spin default 1 min 1 max " +
+                         Runtime.getRuntime().availableProcessors());
+                }
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                awaitSearch();
+                setOption(tokens);
+                break;
+            case "ucinewgame":
+                awaitSearch();
+                if (this.transpositionTable != null) {
+                    this.transpositionTable.clear();
+                }
+                this.board = FenUtils.createGameFromFEN(FenUtils.STANDARD_FEN);
+                this.history = new PositionHistory(this.board);
+                break;
+            case "position":
+                awaitSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                awaitSearch();
+                startSearch(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            default:
+                //debug, register, ponderhit and anything unknown are ignored, as the protocol asks
+                break;
+        }
+    }
+
+    private void setOption(final String[] tokens) {
+        //setoption name <id> value <x>
+        final String name = valueAfter(tokens, "name");
+        final String value = valueAfter(tokens, "value");
+        if (!this.ownsStrategy || name == null || value == null) {
+            return;
+        }
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                this.transpositionTable.resize(Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+            } else if (name.equalsIgnoreCase("Threads")) {
+                this.threadCount = Math.max(1, Integer.parseInt(value));
+                if (this.strategy instanceof LazySmp) {
+                    ((LazySmp) this.strategy).shutdown();
+                }
+                this.strategy = this.threadCount == 1 ?
+                        new AlphaBeta(SearchLimits.MAX_DEPTH, this.transpositionTable, 0, this.evaluationCache) :
+                        new LazySmp(SearchLimits.MAX_DEPTH, this.threadCount, this.transpositionTable,
+                                    this.evaluationCache);
+            }
+        } catch (final IllegalArgumentException e) {
+            send("info string bad value for " + name + ": " + value);
+        }
+    }
+
+    private void setPosition(final String[] tokens) {
+        //position [startpos | fen <fen>] [moves <m1> ... <mi>]
+        int index = 1;
+        Board position;
+        if (index < tokens.length && tokens[index].equals("fen")) {
+            final StringBuilder fen = new StringBuilder();
+            index++;
+            while (index < tokens.length && !tokens[index].equals("moves")) {
+                fen.append(tokens[index++]).append(' ');
+            }
+            try {
+                position = FenUtils.createGameFromFEN(fen.toString().trim());
+            } catch (final IllegalArgumentException e) {
+                send("info string " + e.getMessage());
+                return;
+            }
+        } else {
+            position = FenUtils.createGameFromFEN(FenUtils.STANDARD_FEN);
+            index++;
+        }
+        final PositionHistory positions = new PositionHistory(position);
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                final Move move = this.moveDecoder.decodeUci(position, tokens[index]);
+                if (move == null) {
+                    send("info string illegal move " + tokens[index]);
+                    break;
+                }
+                position = position.currentPlayer().makeMove(move).getTransitionBoard();
+                positions.push(position);
+            }
+        }
+        this.board = position;
+        this.history = positions;
+    }
+
+    private void startSearch(final String[] tokens) {
+        //go [depth d] [movetime t] [wtime t] [btime t] [winc t] [binc t] [movestogo n] [infinite]
+        int depth = SearchLimits.MAX_DEPTH;
+        long moveTime = -1;
+        long timeLeft = -1;
+        long increment = 0;
+        int movesToGo = 0;
+        boolean infinite = false;
+        final boolean white = this.board.currentPlayer().getAlliance().isWhite();
+        for (int i = 1; i < tokens.length; i++) {
+            final String value = i + 1 < tokens.length ? tokens[i + 1] : "";
+            switch (tokens[i]) {
+                case "depth": depth = (int) parse(value, depth); i++; break;
+                case "movetime": moveTime = parse(value, moveTime); i++; break;
+                case "wtime": if (white) timeLeft = parse(value, timeLeft); i++; break;
+                case "btime": if (!white) timeLeft = parse(value, timeLeft); i++; break;
+                case "winc": if (white) increment = parse(value, increment); i++; break;
+                case "binc": if (!white) increment = parse(value, increment); i++; break;
+                case "movestogo": movesToGo = (int) Math.max(1, parse(value, movesToGo)); i++; break;
+                case "infinite": infinite = true; break;
+                default: break;
+            }
+        }
+        final CancellationToken token = new CancellationToken();
+        final SearchLimits.Builder limits = new SearchLimits.Builder().setMaxDepth(depth).setCancellation(token);
+        if (!infinite && moveTime >= 0) {
+            limits.setMoveTime(moveTime - MOVE_OVERHEAD_MS);
+        } else if (!infinite && timeLeft >= 0) {
+            limits.setClock(timeLeft - MOVE_OVERHEAD_MS, increment, movesToGo);
+        }
+
+        final Board position = this.board;
+        final PositionHistory positions = this.history; //only replaced, never pushed to, while a search runs
+        final SearchLimits searchLimits = limits.build();
+        final boolean waitForStop = infinite;
+        final CountDownLatch stopReceived = new CountDownLatch(1);
+        this.cancellation = token;
+        this.stopCommand = stopReceived;
+        this.runningSearch = this.searchThread.submit(() -> {
+            final Move bestMove = search(position, positions, searchLimits);
+            if (waitForStop) {
+                //under go infinite the GUI must not get a bestmove before it sent stop
+                try {
+                    stopReceived.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            send("bestmove " + MoveDecoder.toUci(bestMove));
+        });
+    }
+
+    private Move search(final Board position,
+                        final PositionHistory positions,
+                        final SearchLimits limits) {
+        if (!(this.strategy instanceof InterruptibleStrategy)) {
+            return this.strategy.execute(position, positions);
+        }
+        final long start = System.nanoTime();
+        final SearchListener listener = (depth, score, nodes, principalVariation) -> {
+            final long nanos = Math.max(1, System.nanoTime() - start);
+            send("info depth " + depth + " score " + scoreText(score) + " nodes " + nodes + " nps " +
+                 nodes * 1_000_000_000L / nanos + " time " + nanos / 1_000_000 + " pv " +
+                 String.join(" ", principalVariation));
+        };
+        return ((InterruptibleStrategy) this.strategy).execute(position, positions, limits, listener);
+    }
+
+    private void stopSearch() {
+        if (this.cancellation != null) {
+            this.cancellation.cancel();
+            this.stopCommand.countDown();
+        }
+    }
+
+    private void awaitSearch() {
+        //commands that change the position or the tables wait for the search that still uses them
+        if (this.runningSearch == null) {
+            return;
+        }
+        try {
+            this.runningSearch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            send("info string search failed: " + e.getCause());
+        }
+        this.runningSearch = null;
+    }
+
+    private static String scoreText(final int score) {
+        //mate scores count plies to the mate, UCI counts moves and gives a negative number when the engine is mated
+        final int mateBound = AlphaBeta.MATE_SCORE - SearchBoard.MAX_PLY;
+        if (score > mateBound) {
+            return "mate " + (AlphaBeta.MATE_SCORE - score + 1) / 2;
+        }
+        if (score < -mateBound) {
+            return "mate " + -(AlphaBeta.MATE_SCORE + score) / 2;
+        }
+        return "cp " + score;
+    }
+
+    private static String valueAfter(final String[] tokens, final String key) {
+        //the words between key and the next keyword, option names and values may contain spaces
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(key)) {
+                final StringBuilder value = new StringBuilder();
+                for (int j = i + 1; j < tokens.length && !tokens[j].equals("name") && !tokens[j].equals("value"); j++) {
+                    value.append(value.length() == 0 ? "" : " ").append(tokens[j]);
+                }
+                return value.toString();
+            }
+        }
+        return null;
+    }
+
+    private static long parse(final String value, final long fallback) {
+        try {
+            return Long.parseLong(value);
+        } catch (final NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private void send(final String line) {
+        //the search thread and the command thread both write, one line at a time
+        synchronized (this.output) {
+            this.output.println(line);
+            this.output.flush();
+        }
+    }
+
+    private static ThreadFactory daemon(final String name) {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
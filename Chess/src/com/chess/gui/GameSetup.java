@@ -15,6 +15,7 @@ class GameSetup extends JDialog {
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
     private JSpinner searchDepthSpinner;
+    private JSpinner moveTimeSpinner;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
@@ -68,6 +69,13 @@ class GameSetup extends JDialog {
         JFormattedTextField tf = ((JSpinner.DefaultEditor) editor).getTextField();
         tf.setHorizontalAlignment(SwingConstants.CENTER);
 
+        //the deeper levels stop at this time limit if their depth takes longer
+        this.moveTimeSpinner = addLabeledSpinner(
+                myPanel,
+                "Seconds per move",
+                new SpinnerNumberModel(10, 1, 300, 1)
+        );
+
         final JButton cancelButton = new JButton("Cancel");
         final JButton okButton = new JButton("OK");
 
@@ -146,4 +154,14 @@ class GameSetup extends JDialog {
         return index;
     }
 
+    long getMoveTimeMillis() {
+        return ((Number) this.moveTimeSpinner.getValue()).longValue() * 1000;
+    }
+
+    int getSearchPlies() {
+        //the number of plies the label promises, the greedy level looks one ply ahead and every other level two more
+        final int index = getSearchDepth();
+        return index == 0 ? 1 : index * 2;
+    }
+
 }
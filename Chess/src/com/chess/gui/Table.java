@@ -2,12 +2,23 @@ package com.chess.gui;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.FenUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveDecoder;
+import com.chess.engine.board.PositionHistory;
 import com.chess.engine.board.Tile;
+import com.chess.engine.pgn.PgnGame;
+import com.chess.engine.pgn.PgnReader;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.CancellationToken;
+import com.chess.engine.player.ai.EvaluationCache;
 import com.chess.engine.player.ai.MiniMax;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
 import com.google.common.collect.Lists;
 
 import javax.imageio.ImageIO;
@@ -41,7 +52,11 @@ public class Table extends Observable {
     private BoardDirection boardDirection;
     private Move computerMove;
     private boolean gameOver = false;
-    private static final RepetitionTracker repetitionTracker = new RepetitionTracker();
+    private final PositionHistory positionHistory = new PositionHistory(); //every position of this game, for repetitions
+    private final TranspositionTable transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB); //kept between moves so the computer reuses what it searched last turn
+    private final EvaluationCache evaluationCache = new EvaluationCache(new StandardBoardEvaluator(true), 1 << 18); //kept for the whole session, a position scores the same in every game
+    private final MoveDecoder moveDecoder = new MoveDecoder(); //resolves the SAN moves of a loaded PGN game
+    private CancellationToken searchCancellation = new CancellationToken(); //called off when the game is replaced
     private boolean highlightLegalMoves;
     private static Dimension OUTER_FRAME_DIMENSION = new Dimension(600, 600);
     private static Dimension BOARD_PANEL_DIMENSION = new Dimension(400,350);
@@ -62,7 +77,7 @@ public class Table extends Observable {
         this.gameHistoryPanel = new GameHistoryPanel();
         this.takenPiecesPanel = new TakenPiecesPanel();
         this.boardPanel = new BoardPanel();
-        this.evaluationPanel = new EvaluationPanel();
+        this.evaluationPanel = new EvaluationPanel(this.evaluationCache);
         this.moveLog = new MoveLog();
         this.addObserver(new TableGameAiWatcher());
         this.gameSetup = new GameSetup(this.gameFrame, true);
@@ -118,12 +133,8 @@ public class Table extends Observable {
         this.evaluationPanel.updateEvaluation(chessBoard);
     }
 
-    public static boolean isThreefoldRepetition() {
-        return repetitionTracker.isThreefold(chessBoard);
-    }
-
-    public boolean wouldBeThreefold(final Board nextBoard) {
-        return repetitionTracker.wouldBeThreefold(nextBoard);
+    public boolean isThreefoldRepetition() {
+        return this.positionHistory.isThreefold();
     }
 
     public boolean isGameOver() {
@@ -228,9 +239,13 @@ public class Table extends Observable {
         final int result = chooser.showOpenDialog(this.gameFrame);
         if (result == JFileChooser.APPROVE_OPTION) {
             final java.io.File file = chooser.getSelectedFile();
-            try {
-                final String pgnText = new String(java.nio.file.Files.readAllBytes(file.toPath()));
-                loadGameFromPGN(pgnText);
+            //only the first game is needed, the reader streams it without reading the rest of the file
+            try (final PgnReader reader = new PgnReader(file.toPath())) {
+                final PgnGame game = reader.nextGame();
+                if (game == null) {
+                    throw new IOException("No game in " + file.getName());
+                }
+                loadGameFromPGN(game);
             } catch (Exception ex) {
                 ex.printStackTrace();
                 JOptionPane.showMessageDialog(
@@ -242,20 +257,19 @@ public class Table extends Observable {
             }
         }
     }
-    private void loadGameFromPGN(final String pgnText) {
+    private void loadGameFromPGN(final PgnGame game) {
         // Reset game state
+        cancelSearch();
         this.gameOver = false;
         this.moveLog.clear();
-        // Start from initial board
-        Board board = Board.createStandardBoard();
-        // Reset repetition tracker and record starting position
-        this.repetitionTracker.reset();
-        this.repetitionTracker.recordPosition(board);
-        // Extract PGN moves
-        final java.util.List<String> moveTokens = extractMoveTokens(pgnText);
+        // Start from the FEN tag's position if the game has one, otherwise from the initial board
+        final String fen = game.getTag("FEN");
+        Board board = fen != null ? FenUtils.createGameFromFEN(fen) : Board.createStandardBoard();
+        // Reset position history and record starting position
+        this.positionHistory.clear();
+        this.positionHistory.push(board);
         int index = 0;
-        for (final String san : moveTokens) {
-            System.out.println("Applying PGN move " + index + ": " + san);
+        for (final String san : game.getMoves()) {
             final Move move = createMoveFromNotation(board, san);
             if (move == null) {
                 // 👇 Instead of stopping, just skip this move
@@ -274,7 +288,7 @@ public class Table extends Observable {
             }
             board = transition.getTransitionBoard();
             this.moveLog.addMove(move);
-            this.repetitionTracker.recordPosition(board);
+            this.positionHistory.push(board);
             index++;
         }
         // Commit final board as current game position
@@ -296,9 +310,9 @@ public class Table extends Observable {
         // Start from initial board
         Board board = Board.createStandardBoard();
 
-        // Reset repetition tracker and record starting position
-        this.repetitionTracker.reset();
-        this.repetitionTracker.recordPosition(board);
+        // Reset position history and record starting position
+        this.positionHistory.clear();
+        this.positionHistory.push(board);
 
         // Extract PGN moves
         final java.util.List<String> moveTokens = extractMoveTokens(pgnText);
@@ -322,7 +336,7 @@ public class Table extends Observable {
 
             board = transition.getTransitionBoard();
             this.moveLog.addMove(move);
-            this.repetitionTracker.recordPosition(board);
+            this.positionHistory.push(board);
 
             index++;
         }
@@ -333,221 +347,13 @@ public class Table extends Observable {
         this.takenPiecesPanel.redo(this.moveLog);
         this.boardPanel.drawBoard(this.chessBoard);
     }*/
-    private java.util.List<String> extractMoveTokens(final String pgnText) {
-        final java.util.List<String> tokens = new java.util.ArrayList<>();
-
-        // Remove header tag pairs (lines starting with '[')
-        final StringBuilder movetext = new StringBuilder();
-        final String[] lines = pgnText.split("\\R");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            if (line.startsWith("[")) continue; // skip tags
-            movetext.append(line).append(" ");
-        }
-
-        // Split by whitespace
-        for (String tok : movetext.toString().trim().split("\\s+")) {
-            tok = tok.trim();
-            if (tok.isEmpty()) continue;
-
-            // Skip move numbers and results
-            if (tok.matches("^[0-9]+\\.$")) continue;              // "1."
-            if (tok.equals("1-0") || tok.equals("0-1")
-                    || tok.equals("1/2-1/2") || tok.equals("*")) {
-                continue;
-            }
-
-            tokens.add(tok);
-        }
-
-        return tokens;
-    }
-
     private Move createMoveFromNotation(final Board board, final String notation) {
-
-        // 1) Clean up notation: remove check/mate markers
-        final String raw = notation.trim();
-        final String clean = raw.replace("+", "").replace("#", "");
-
-        // 2) First try: direct SAN match vs move.toString()
-        Move sanMatch = matchByToString(board, clean);
-        if (sanMatch != null) {
-            return sanMatch;
-        }
-
-        // 3) Castling special cases (if toString() didn't match)
-        if (clean.equals("O-O") || clean.equals("O-O-O")) {
-            return findCastleMove(board, clean.equals("O-O")); // true = king-side
-        }
-
-        // 4) Parse SAN into piece type + dest square + disambiguation
-
-        final Piece.PieceType pieceType;
-        String remainder = clean;
-
-        char first = remainder.charAt(0);
-        if ("KQRBN".indexOf(first) >= 0) {
-            pieceType = mapPieceLetter(first);
-            remainder = remainder.substring(1); // strip 'B' from "Bxf4"
-        } else {
-            pieceType = Piece.PieceType.PAWN;
-        }
-
-        // strip capture marker
-        remainder = remainder.replace("x", "");
-
-        // handle promotion like e8=Q
-        int promoIdx = remainder.indexOf('=');
-        if (promoIdx >= 0) {
-            // String promotionPart = remainder.substring(promoIdx + 1); // e.g. "Q"
-            remainder = remainder.substring(0, promoIdx); // just the square/disambig part
-        }
-
-        if (remainder.length() < 2) {
-            System.err.println("Cannot parse SAN: " + notation);
-            return null;
-        }
-
-        String targetSquare = remainder.substring(remainder.length() - 2);   // e.g. "d4"
-        String disambiguation = remainder.substring(0, remainder.length() - 2); // e.g. "b" in Nbd2
-
-        // 5) Build candidates by comparing *algebraic* dest squares, not coordinates
-
-        java.util.List<Move> candidates = new java.util.ArrayList<>();
-
-        for (final Move move : board.currentPlayer().getLegalMoves()) {
-
-            if (move.getMovedPiece().getPieceType() != pieceType) {
-                continue;
-            }
-
-            // Convert this move's destination coordinate to algebraic (e.g. "d4")
-            String moveDestSquare = coordinateToAlgebraic(move.getDestinationCoordinate());
-            if (!moveDestSquare.equals(targetSquare)) {
-                continue;
-            }
-
-            if (!disambiguationMatches(move, disambiguation)) {
-                continue;
-            }
-
-            candidates.add(move);
-        }
-
-        if (candidates.size() == 1) {
-            return candidates.get(0);
-        } else if (candidates.isEmpty()) {
+        //SAN from PGN files, the decoder also takes UCI
+        final Move move = this.moveDecoder.decode(board, notation.trim());
+        if (move == null) {
             System.err.println("No legal move matches SAN: " + notation);
-
-            // Debug: dump all legal moves and their destinations
-            System.err.println("Current player: " + board.currentPlayer().getAlliance());
-            System.err.println("Legal moves at this point:");
-
-            for (final Move m : board.currentPlayer().getLegalMoves()) {
-                String san = m.toString();
-                String destSq = coordinateToAlgebraic(m.getDestinationCoordinate());
-                System.err.println("  " + san + "  -> " + destSq +
-                        " (piece=" + m.getMovedPiece().getPieceType() + ")");
-            }
-
-            return null;
-        }
-        else {
-            System.err.println("Ambiguous SAN for: " + notation + " candidates=" + candidates.size());
-            return candidates.get(0); // or handle properly if you want
-        }
-    }
-
-    private boolean disambiguationMatches(final Move move, final String disambiguation) {
-        return true;
-    }
-        /*if (disambiguation == null || disambiguation.isEmpty()) {
-            return true; // nothing to check
-        }
-
-        final int from = move.getCurrentCoordinate();
-        final String fromSquare = coordinateToAlgebraic(from);
-        final char fromFile = fromSquare.charAt(0); // 'a'..'h'
-        final char fromRank = fromSquare.charAt(1); // '1'..'8'
-
-        if (disambiguation.length() == 1) {
-            char d = disambiguation.charAt(0);
-            if (d >= 'a' && d <= 'h') {
-                return fromFile == d;
-            } else if (d >= '1' && d <= '8') {
-                return fromRank == d;
-            }
-        } else if (disambiguation.length() == 2) {
-            // both file and rank, e.g. "e4"
-            return disambiguation.equals(fromSquare);
-        }
-
-        // If disambiguation is something unexpected, ignore it for now.
-        return true;
-    }*/
-
-    private String coordinateToAlgebraic(final int coordinate) {
-        int rankFromTop = coordinate / 8;          // 0..7
-        int file = coordinate % 8;                 // 0..7
-
-        char fileChar = (char) ('a' + file);
-        char rankChar = (char) ('1' + (7 - rankFromTop));
-
-        return "" + fileChar + rankChar;
-    }
-
-    private Piece.PieceType mapPieceLetter(final char c) {
-        switch (c) {
-            case 'K': return Piece.PieceType.KING;
-            case 'Q': return Piece.PieceType.QUEEN;
-            case 'R': return Piece.PieceType.ROOK;
-            case 'B': return Piece.PieceType.BISHOP;
-            case 'N': return Piece.PieceType.KNIGHT;
-            default:  return Piece.PieceType.PAWN;
-        }
-    }
-
-
-    private Move matchByToString(final Board board, final String cleanSAN) {
-
-        // Normalize PGN SAN by ignoring captures
-        final String normalizedSAN = cleanSAN.replace("x", "");
-
-        for (final Move move : board.currentPlayer().getLegalMoves()) {
-            String moveText = move.toString();
-            if (moveText == null) continue;
-
-            moveText = moveText.replace("+", "")
-                    .replace("#", "")
-                    .replace("x", "")
-                    .trim();
-
-            if (moveText.equals(normalizedSAN)) {
-                return move;
-            }
         }
-        return null;
-    }
-
-    private Move findCastleMove(final Board board, final boolean kingSide) {
-        for (final Move move : board.currentPlayer().getLegalMoves()) {
-            if (move.getMovedPiece().getPieceType() != Piece.PieceType.KING) {
-                continue;
-            }
-
-            int dest = move.getDestinationCoordinate();
-            String destSq = coordinateToAlgebraic(dest);
-
-            if (board.currentPlayer().getAlliance().isWhite()) {
-                if (kingSide && destSq.equals("g1")) return move;
-                if (!kingSide && destSq.equals("c1")) return move;
-            } else {
-                if (kingSide && destSq.equals("g8")) return move;
-                if (!kingSide && destSq.equals("c8")) return move;
-            }
-        }
-        return null;
+        return move;
     }
     // =============================================================
     // Move history navigation (click / arrows)
@@ -648,14 +454,23 @@ public class Table extends Observable {
         this.evaluationPanel.setVisible(false);
     }
 
+    private void cancelSearch() {
+        //a computer move still being searched belongs to the old game and must never be played in the new one
+        this.searchCancellation.cancel();
+        this.searchCancellation = new CancellationToken();
+    }
+
     public void newGame() {
+        // Stop the computer thinking about the old game
+        cancelSearch();
         // Reset game-over flag
         this.gameOver = false;
         // Create a fresh starting board
         this.chessBoard = Board.createStandardBoard();
-        // Reset repetition tracker and record the initial position
-        this.repetitionTracker.reset();
-        this.repetitionTracker.recordPosition(this.chessBoard);
+        // Reset position history and record the initial position
+        this.positionHistory.clear();
+        this.positionHistory.push(this.chessBoard);
+        this.transpositionTable.clear();
         hideEvaluation();
         // Clear move log
         this.moveLog.clear();
@@ -758,18 +573,46 @@ public class Table extends Observable {
 
 
     private static class AIThinkTank extends SwingWorker<Move, String> {
+        private final CancellationToken cancellation;
+        private final Board board;
+        private final PositionHistory history;
+        private final int searchPlies;
+        private final long moveTimeMillis;
+
         private AIThinkTank(){
+            /*built on the EDT, which is the only thread that changes the game, so the board and a copy of its history
+            are taken here and the worker thread never touches the table's own history while the EDT pushes to it*/
+            this.cancellation = Table.get().searchCancellation;
+            this.board = Table.get().getGameBoard();
+            this.history = new PositionHistory(Table.get().positionHistory);
+            this.searchPlies = Table.get().gameSetup.getSearchPlies();
+            this.moveTimeMillis = Table.get().gameSetup.getMoveTimeMillis();
         }
 
         @Override
         protected Move doInBackground() throws Exception {
-            final MoveStrategy miniMax = new MiniMax(Table.get().gameSetup.getSearchDepth());
-            final Move bestMove = miniMax.execute(Table.get().getGameBoard());
-            return bestMove;
+            //the greedy level keeps the one ply MiniMax, every deeper level gets a real alpha-beta search of that many plies
+            if (this.searchPlies <= 1) {
+                final MoveStrategy strategy = new MiniMax(this.searchPlies, Table.get().transpositionTable,
+                                                           Table.get().evaluationCache);
+                return strategy.execute(this.board, this.history);
+            }
+            //the depth is a ceiling, the time limit from the setup stops the search first if it takes longer
+            final AlphaBeta strategy = new AlphaBeta(this.searchPlies, Table.get().transpositionTable,
+                                                     this.searchPlies <= 4 ? 150 : 50, Table.get().evaluationCache);
+            final SearchLimits limits = new SearchLimits.Builder()
+                    .setMaxDepth(this.searchPlies)
+                    .setMoveTime(this.moveTimeMillis)
+                    .setCancellation(this.cancellation)
+                    .build();
+            return strategy.execute(this.board, this.history, limits, null);
         }
         @Override
         protected void done() {
             try {
+                if (this.cancellation.isCancelled()) {
+                    return; //the game this move was searched for is gone
+                }
                 final Move bestMove = get();
                 Table.get().updateComputerMove(bestMove);
                 Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(bestMove).getTransitionBoard());
@@ -788,7 +631,7 @@ public class Table extends Observable {
 
     public void updateGameBoard(final Board board){
         this.chessBoard = board;
-        this.repetitionTracker.recordPosition(board);
+        this.positionHistory.push(board);
         hideEvaluation();
     }
 